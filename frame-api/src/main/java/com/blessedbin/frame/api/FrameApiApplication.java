@@ -1,12 +1,15 @@
 package com.blessedbin.frame.api;
 
+import com.blessedbin.frame.common.event.FrameCacheEvictEvent;
 import de.codecentric.boot.admin.server.config.EnableAdminServer;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.bus.jackson.RemoteApplicationEventScan;
 import org.springframework.cloud.client.circuitbreaker.EnableCircuitBreaker;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.netflix.zuul.EnableZuulProxy;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 
 /**
@@ -19,6 +22,8 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 @EnableGlobalMethodSecurity(prePostEnabled = true)
 @EnableFeignClients
 @EnableCircuitBreaker
+@EnableScheduling
+@RemoteApplicationEventScan(basePackageClasses = FrameCacheEvictEvent.class)
 public class FrameApiApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,111 @@
+package com.blessedbin.frame.api.component;
+
+import com.blessedbin.frame.api.event.PermissionSnapshotRefreshedEvent;
+import com.blessedbin.frame.api.service.UserService;
+import com.blessedbin.frame.api.support.PathPermissionTrie;
+import com.blessedbin.frame.api.support.PermissionSnapshot;
+import com.blessedbin.frame.common.entity.FramePermission;
+import com.blessedbin.frame.common.event.FrameCacheEvictEvent;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Created by xubin on 2018/11/5.
+ *
+ * 网关持有的API目录索引，首次鉴权时从用户中心拉取并编译，之后通过{@link #refresh()}整体替换。
+ * 存在本地快照时直接由快照预热，用户中心不可用时保留当前索引或退化为快照。
+ *
+ * @author 37075
+ * @date 2018/11/5
+ * @time 11:03
+ * @tool intellij idea
+ */
+@Component
+@Log4j2
+public class ApiPermissionIndex {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PermissionSnapshotStore snapshotStore;
+
+    private volatile PathPermissionTrie trie;
+
+    @PostConstruct
+    public void init() {
+        PermissionSnapshot snapshot = snapshotStore.getSnapshot();
+        if (snapshot != null) {
+            this.trie = PathPermissionTrie.build(snapshot.getApis());
+            log.info("API目录索引已由本地快照预热，共{}个API", trie.size());
+        }
+    }
+
+    /**
+     * 判断请求是否命中任意一个已授权的API
+     * @param method 请求方法
+     * @param path 路由后的路径
+     * @param granted 判断API id是否已授权
+     * @return
+     */
+    public boolean matches(String method, String path, IntPredicate granted) {
+        return getTrie().matches(method, path, granted);
+    }
+
+    /**
+     * 重新拉取API目录并编译
+     */
+    public void refresh() {
+        List<FramePermission> apis;
+        try {
+            apis = userService.findAllApi();
+        } catch (RuntimeException e) {
+            if (trie != null) {
+                log.warn("拉取API目录失败，继续使用当前索引：{}", e.getMessage());
+                return;
+            }
+            PermissionSnapshot snapshot = snapshotStore.getSnapshot();
+            if (snapshot == null) {
+                throw e;
+            }
+            log.warn("拉取API目录失败，使用本地快照：{}", e.getMessage());
+            apis = snapshot.getApis();
+        }
+        PathPermissionTrie newTrie = PathPermissionTrie.build(apis);
+        this.trie = newTrie;
+        log.info("API目录索引已重建，共{}个API", newTrie.size());
+    }
+
+    @EventListener
+    public void onCacheEvict(FrameCacheEvictEvent event) {
+        if (event.getRegion() == FrameCacheEvictEvent.Region.API) {
+            refresh();
+        }
+    }
+
+    @EventListener
+    public void onSnapshotRefreshed(PermissionSnapshotRefreshedEvent event) {
+        PathPermissionTrie newTrie = PathPermissionTrie.build(event.getSnapshot().getApis());
+        this.trie = newTrie;
+        log.info("API目录索引已按快照重建，共{}个API", newTrie.size());
+    }
+
+    private PathPermissionTrie getTrie() {
+        PathPermissionTrie current = trie;
+        if (current == null) {
+            synchronized (this) {
+                if (trie == null) {
+                    refresh();
+                }
+                current = trie;
+            }
+        }
+        return current;
+    }
+}
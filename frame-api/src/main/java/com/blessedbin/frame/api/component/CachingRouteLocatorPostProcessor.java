@@ -0,0 +1,41 @@
+package com.blessedbin.frame.api.component;
+
+import com.blessedbin.frame.api.support.CachingRouteLocator;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cloud.netflix.zuul.filters.CompositeRouteLocator;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Created by xubin on 2018/11/13.
+ *
+ * 使用{@link CachingRouteLocator}包装Zuul的主路由定位器，鉴权和Zuul过滤器共用同一份缓存
+ *
+ * @author 37075
+ * @date 2018/11/13
+ * @time 10:10
+ * @tool intellij idea
+ */
+@Component
+@Log4j2
+public class CachingRouteLocatorPostProcessor implements BeanPostProcessor, EnvironmentAware {
+
+    private long maximumSize = 10000;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.maximumSize = environment.getProperty("frame.gateway.route-cache.maximum-size", Long.class, maximumSize);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (bean instanceof CompositeRouteLocator && !(bean instanceof CachingRouteLocator)) {
+            log.debug("缓存路由解析结果：{}", beanName);
+            return new CachingRouteLocator((CompositeRouteLocator) bean, maximumSize);
+        }
+        return bean;
+    }
+}
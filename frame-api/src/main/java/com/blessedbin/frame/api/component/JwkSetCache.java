@@ -0,0 +1,120 @@
+package com.blessedbin.frame.api.component;
+
+import com.blessedbin.frame.api.service.AuthService;
+import com.blessedbin.frame.api.support.SingleFlight;
+import com.blessedbin.frame.common.security.RsaJwk;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.jwt.crypto.sign.RsaVerifier;
+import org.springframework.security.jwt.crypto.sign.SignatureVerifier;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Created by xubin on 2018/11/27.
+ *
+ * 认证中心JWT签名公钥的本地缓存，按kid查找。启动时加载并定时刷新；
+ * 遇到未知的kid（密钥轮换）时立即刷新一次，同一时刻的刷新会被合并，且两次按需刷新之间至少间隔min-refresh-millis，
+ * 伪造kid的token不会把请求放大到认证中心。
+ *
+ * @author 37075
+ * @date 2018/11/27
+ * @time 14:20
+ * @tool intellij idea
+ */
+@Component
+@Log4j2
+public class JwkSetCache {
+
+    private static final String KEY = "jwks";
+
+    @Autowired
+    private AuthService authService;
+
+    @Value("${frame.gateway.jwk.min-refresh-millis:10000}")
+    private long minRefreshMillis;
+
+    private final SingleFlight<String, Map<String, SignatureVerifier>> singleFlight = new SingleFlight<>();
+
+    private volatile Map<String, SignatureVerifier> verifiers = Collections.emptyMap();
+
+    private volatile long lastRefresh;
+
+    @PostConstruct
+    public void init() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("加载JWT签名公钥失败，首次校验token时重试：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * @param keyId JWT头部的kid
+     * @return 校验器，kid未知时返回null
+     */
+    public SignatureVerifier getVerifier(String keyId) {
+        SignatureVerifier verifier = verifiers.get(keyId);
+        if (verifier != null) {
+            return verifier;
+        }
+        if (System.currentTimeMillis() - lastRefresh < minRefreshMillis) {
+            return null;
+        }
+        try {
+            return singleFlight.execute(KEY, this::load).get(keyId);
+        } catch (RuntimeException e) {
+            log.warn("刷新JWT签名公钥失败：{}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${frame.gateway.jwk.refresh-millis:300000}",
+            initialDelayString = "${frame.gateway.jwk.refresh-millis:300000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("刷新JWT签名公钥失败，继续使用当前公钥：{}", e.getMessage());
+        }
+    }
+
+    public void refresh() {
+        singleFlight.execute(KEY, this::load);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, SignatureVerifier> load() {
+        lastRefresh = System.currentTimeMillis();
+        Map<String, Object> jwkSet = authService.getJwkSet();
+        Object keys = jwkSet == null ? null : jwkSet.get(RsaJwk.KEYS);
+        if (!(keys instanceof List)) {
+            throw new IllegalStateException("JWK集合格式错误");
+        }
+        Map<String, SignatureVerifier> loaded = new HashMap<>();
+        for (Object key : (List<Object>) keys) {
+            if (!(key instanceof Map)) {
+                continue;
+            }
+            Map<String, ?> jwk = (Map<String, ?>) key;
+            Object keyId = jwk.get(RsaJwk.KEY_ID);
+            RSAPublicKey publicKey = RsaJwk.toPublicKey(jwk);
+            if (keyId != null && publicKey != null) {
+                loaded.put(keyId.toString(), new RsaVerifier(publicKey));
+            }
+        }
+        if (!loaded.keySet().equals(verifiers.keySet())) {
+            log.info("JWT签名公钥已更新：{}", loaded.keySet());
+        }
+        verifiers = loaded;
+        return loaded;
+    }
+}
@@ -0,0 +1,101 @@
+package com.blessedbin.frame.api.component;
+
+import com.blessedbin.frame.api.event.PermissionSnapshotRefreshedEvent;
+import com.blessedbin.frame.api.service.UserService;
+import com.blessedbin.frame.api.support.PermissionSnapshot;
+import com.blessedbin.frame.common.entity.FramePermissionSnapshot;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Created by xubin on 2018/11/14.
+ *
+ * 权限目录的本地快照。启动时从磁盘加载，之后定时从用户中心拉取，内容版本变化时才重写文件。
+ * 用户中心不可用时，鉴权退化为使用快照中的数据；快照变化时发布{@link PermissionSnapshotRefreshedEvent}，
+ * 兜底处理丢失的缓存失效事件。
+ *
+ * @author 37075
+ * @date 2018/11/14
+ * @time 11:05
+ * @tool intellij idea
+ */
+@Component
+@Log4j2
+public class PermissionSnapshotStore {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 快照文件，默认在工作目录的data下；必须位于重启后仍保留的目录，容器部署时挂载卷
+     */
+    @Value("${frame.gateway.snapshot.path:${user.dir}/data/permission-snapshot.bin}")
+    private String path;
+
+    private volatile PermissionSnapshot snapshot;
+
+    @PostConstruct
+    public void init() {
+        Path file = Paths.get(path).toAbsolutePath();
+        if (!Files.exists(file)) {
+            log.warn("权限快照文件不存在：{}，首次从用户中心拉取成功前，用户中心不可用将导致鉴权失败。"
+                    + "若不是首次启动，请检查frame.gateway.snapshot.path是否指向持久化目录", file);
+            return;
+        }
+        try {
+            snapshot = PermissionSnapshot.read(file);
+            log.info("已加载权限快照，版本：{}，共{}个API", snapshot.getVersion(), snapshot.getApis().size());
+        } catch (IOException e) {
+            log.warn("权限快照加载失败：{}", file, e);
+        }
+    }
+
+    /**
+     * 从用户中心拉取最新的权限目录
+     */
+    @Scheduled(fixedDelayString = "${frame.gateway.snapshot.refresh-millis:60000}")
+    public void refresh() {
+        FramePermissionSnapshot catalogue;
+        try {
+            catalogue = userService.findPermissionSnapshot();
+        } catch (RuntimeException e) {
+            log.warn("拉取权限目录失败，继续使用本地快照：{}", e.getMessage());
+            return;
+        }
+        PermissionSnapshot latest = PermissionSnapshot.of(catalogue);
+        PermissionSnapshot current = snapshot;
+        if (current != null && current.getVersion() == latest.getVersion()) {
+            return;
+        }
+        snapshot = latest;
+        try {
+            latest.write(Paths.get(path));
+            log.info("权限快照已更新，版本：{}，共{}个API", latest.getVersion(), latest.getApis().size());
+        } catch (IOException e) {
+            log.warn("权限快照写入失败：{}", path, e);
+        }
+        if (current != null) {
+            eventPublisher.publishEvent(new PermissionSnapshotRefreshedEvent(latest));
+        }
+    }
+
+    /**
+     * @return 当前快照，从未成功加载过时返回null
+     */
+    public PermissionSnapshot getSnapshot() {
+        return snapshot;
+    }
+}
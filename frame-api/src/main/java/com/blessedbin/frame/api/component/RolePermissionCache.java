@@ -0,0 +1,121 @@
+package com.blessedbin.frame.api.component;
+
+import com.blessedbin.frame.api.event.PermissionSnapshotRefreshedEvent;
+import com.blessedbin.frame.api.service.UserService;
+import com.blessedbin.frame.api.support.PermissionBitmap;
+import com.blessedbin.frame.api.support.PermissionSnapshot;
+import com.blessedbin.frame.api.support.VersionedLoadingCache;
+import com.blessedbin.frame.common.event.FrameCacheEvictEvent;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Created by xubin on 2018/11/7.
+ *
+ * 角色权限位图缓存，每个角色只计算一次，按角色组合缓存合并后的结果。
+ * 用户中心不可用时从本地权限快照中取角色的权限。失效时正在加载的结果会被丢弃，不会把变更前的权限写回缓存。
+ *
+ * @author 37075
+ * @date 2018/11/7
+ * @time 10:20
+ * @tool intellij idea
+ */
+@Component
+@Log4j2
+public class RolePermissionCache {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PermissionSnapshotStore snapshotStore;
+
+    @Value("${frame.gateway.permission-cache.expire-seconds:300}")
+    private long expireSeconds;
+
+    /**
+     * 角色关键字 -> 权限位图
+     */
+    private VersionedLoadingCache<String, PermissionBitmap> roles;
+
+    /**
+     * 排序后的角色关键字组合 -> 合并后的权限位图
+     */
+    private VersionedLoadingCache<List<String>, PermissionBitmap> combinations;
+
+    @PostConstruct
+    public void init() {
+        roles = new VersionedLoadingCache<>(0, expireSeconds, this::load);
+        combinations = new VersionedLoadingCache<>(1024, expireSeconds, this::union);
+    }
+
+    /**
+     * 获取角色组合的有效权限
+     * @param roleKeys 排序后的角色关键字
+     * @return
+     */
+    public PermissionBitmap get(List<String> roleKeys) {
+        if (roleKeys.isEmpty()) {
+            return PermissionBitmap.EMPTY;
+        }
+        return combinations.get(roleKeys);
+    }
+
+    @EventListener
+    public void onCacheEvict(FrameCacheEvictEvent event) {
+        switch (event.getRegion()) {
+            case ROLE_PERMISSION:
+                if (event.isAll()) {
+                    roles.invalidateAll();
+                } else {
+                    roles.invalidate(event.getKeys());
+                }
+                combinations.invalidateAll();
+                break;
+            case API:
+                roles.invalidateAll();
+                combinations.invalidateAll();
+                break;
+            default:
+                break;
+        }
+    }
+
+    @EventListener
+    public void onSnapshotRefreshed(PermissionSnapshotRefreshedEvent event) {
+        roles.invalidateAll();
+        combinations.invalidateAll();
+    }
+
+    private PermissionBitmap load(String roleKey) {
+        PermissionBitmap bitmap;
+        try {
+            bitmap = PermissionBitmap.of(userService.findRolePermission(roleKey));
+        } catch (RuntimeException e) {
+            PermissionSnapshot snapshot = snapshotStore.getSnapshot();
+            if (snapshot == null) {
+                throw e;
+            }
+            log.warn("加载角色权限失败，使用本地快照：{}，{}", roleKey, e.getMessage());
+            return snapshot.getRole(roleKey);
+        }
+        log.debug("加载角色权限：{}，共{}个", roleKey, bitmap.cardinality());
+        return bitmap;
+    }
+
+    private PermissionBitmap union(List<String> roleKeys) {
+        Collection<PermissionBitmap> bitmaps = new ArrayList<>(roleKeys.size());
+        for (String roleKey : roleKeys) {
+            bitmaps.add(roles.get(roleKey));
+        }
+        return PermissionBitmap.union(bitmaps);
+    }
+}
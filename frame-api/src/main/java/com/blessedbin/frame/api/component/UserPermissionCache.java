@@ -0,0 +1,110 @@
+package com.blessedbin.frame.api.component;
+
+import com.blessedbin.frame.api.service.UserService;
+import com.blessedbin.frame.api.support.PermissionBitmap;
+import com.blessedbin.frame.api.support.VersionedLoadingCache;
+import com.blessedbin.frame.common.entity.FrameIdentity;
+import com.blessedbin.frame.common.event.FrameCacheEvictEvent;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Created by xubin on 2018/11/6.
+ *
+ * 网关本地的用户权限缓存，按uuid缓存用户的角色，有效权限由{@link RolePermissionCache}按角色合并得到。
+ * 容量和过期时间有上限，用户中心修改用户角色后通过{@link FrameCacheEvictEvent}主动失效，失效时正在加载的结果会被丢弃。
+ * 用户中心不可用时，以令牌中携带的角色作为用户的角色。
+ *
+ * @author 37075
+ * @date 2018/11/6
+ * @time 11:20
+ * @tool intellij idea
+ */
+@Component
+@Log4j2
+public class UserPermissionCache {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RolePermissionCache rolePermissionCache;
+
+    @Value("${frame.gateway.permission-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${frame.gateway.permission-cache.expire-seconds:300}")
+    private long expireSeconds;
+
+    /**
+     * uuid -> 排序后的角色关键字
+     */
+    private VersionedLoadingCache<String, List<String>> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = new VersionedLoadingCache<>(maximumSize, expireSeconds, this::load);
+    }
+
+    /**
+     * 获取用户的有效权限
+     * @param uuid 用户ID
+     * @return
+     */
+    public PermissionBitmap get(String uuid) {
+        return rolePermissionCache.get(cache.get(uuid));
+    }
+
+    /**
+     * 获取用户的有效权限，无法获取用户角色时使用令牌中的角色
+     * @param uuid 用户ID
+     * @param tokenRoles 令牌中的角色关键字
+     * @return
+     */
+    public PermissionBitmap get(String uuid, Collection<String> tokenRoles) {
+        List<String> roleKeys;
+        try {
+            roleKeys = cache.get(uuid);
+        } catch (RuntimeException e) {
+            log.warn("加载用户角色失败，使用令牌中的角色：{}，{}", uuid, e.getMessage());
+            roleKeys = tokenRoles.stream().filter(Objects::nonNull).distinct().sorted().collect(Collectors.toList());
+        }
+        return rolePermissionCache.get(roleKeys);
+    }
+
+    @EventListener
+    public void onCacheEvict(FrameCacheEvictEvent event) {
+        if (event.getRegion() != FrameCacheEvictEvent.Region.USER_ROLE
+                && event.getRegion() != FrameCacheEvictEvent.Region.USER) {
+            return;
+        }
+        log.debug("收到缓存失效事件：{}", event);
+        if (event.isAll()) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidate(event.getKeys());
+        }
+    }
+
+    private List<String> load(String uuid) {
+        FrameIdentity identity = userService.findIdentityByUuid(uuid);
+        if (identity == null || identity.getRoleKeys() == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(identity.getRoleKeys().stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList()));
+    }
+}
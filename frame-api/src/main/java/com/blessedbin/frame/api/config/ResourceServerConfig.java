@@ -1,24 +1,36 @@
 package com.blessedbin.frame.api.config;
 
 import com.blessedbin.frame.api.component.FrameAccessDeniedHandler;
+import com.blessedbin.frame.api.component.JwkSetCache;
+import com.blessedbin.frame.api.service.PermissionService;
+import com.blessedbin.frame.api.support.FrameSecurityMetadataSource;
+import com.blessedbin.frame.api.support.PermissionAccessDecisionVoter;
+import com.blessedbin.frame.common.security.CachingTokenServices;
+import com.blessedbin.frame.common.security.JwkVerifyingAccessTokenConverter;
+import com.blessedbin.frame.common.security.TokenRevocationList;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.ApplicationContext;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.access.AccessDecisionManager;
+import org.springframework.security.access.vote.AffirmativeBased;
+import org.springframework.security.config.annotation.ObjectPostProcessor;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.config.annotation.web.configurers.ExpressionUrlAuthorizationConfigurer;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.config.annotation.web.configuration.EnableResourceServer;
 import org.springframework.security.oauth2.config.annotation.web.configuration.ResourceServerConfigurerAdapter;
 import org.springframework.security.oauth2.config.annotation.web.configurers.ResourceServerSecurityConfigurer;
-import org.springframework.security.oauth2.provider.expression.OAuth2WebSecurityExpressionHandler;
 import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
 import org.springframework.security.oauth2.provider.token.TokenStore;
 import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
 import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+import org.springframework.security.web.access.intercept.FilterSecurityInterceptor;
+
+import java.util.Collections;
 
 /**
  * Created by xubin on 2018/7/31.
@@ -36,7 +48,7 @@ public class ResourceServerConfig extends ResourceServerConfigurerAdapter {
     @Autowired
     private FilterIgnoreProperties filterIgnorePropertiesConfig;
     @Autowired
-    private OAuth2WebSecurityExpressionHandler expressionHandler;
+    private PermissionService permissionService;
 
     @Autowired
     private CustomAccessTokenConverter customAccessTokenConverter;
@@ -44,40 +56,49 @@ public class ResourceServerConfig extends ResourceServerConfigurerAdapter {
     @Autowired
     private FrameAccessDeniedHandler frameAccessDeniedHandler;
 
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private JwkSetCache jwkSetCache;
+
+    @Value("${frame.gateway.token-cache.maximum-size:10000}")
+    private long tokenCacheMaximumSize;
+
+    @Value("${frame.gateway.token-cache.expire-seconds:600}")
+    private long tokenCacheExpireSeconds;
+
 
     @Override
     public void configure(HttpSecurity http) throws Exception {
         //允许使用iframe 嵌套，避免swagger-ui 不被加载的问题
         http.headers().frameOptions().disable();
 
-        ExpressionUrlAuthorizationConfigurer<HttpSecurity>.ExpressionInterceptUrlRegistry
-                registry = http.authorizeRequests();
-        filterIgnorePropertiesConfig.getUrls().forEach(url -> registry.antMatchers(url).permitAll());
-        registry.antMatchers("/api/user/**").authenticated();
-        registry.anyRequest().access("@permissionService.hasPermission(request,authentication)");
-        // registry.anyRequest().authenticated();
+        FrameSecurityMetadataSource metadataSource = new FrameSecurityMetadataSource()
+                .permitAll(filterIgnorePropertiesConfig.getUrls())
+                .authenticated("/api/user/**", "/gateway/**");
+        AccessDecisionManager accessDecisionManager = new AffirmativeBased(
+                Collections.singletonList(new PermissionAccessDecisionVoter(permissionService)));
+
+        // 访问规则由metadataSource决定，直接投票鉴权，不使用SpEL表达式
+        http.authorizeRequests()
+                .anyRequest().authenticated()
+                .withObjectPostProcessor(new ObjectPostProcessor<FilterSecurityInterceptor>() {
+                    @Override
+                    public <O extends FilterSecurityInterceptor> O postProcess(O interceptor) {
+                        interceptor.setSecurityMetadataSource(metadataSource);
+                        interceptor.setAccessDecisionManager(accessDecisionManager);
+                        return interceptor;
+                    }
+                });
     }
 
     @Override
     public void configure(ResourceServerSecurityConfigurer resources) throws Exception {
-        resources.expressionHandler(expressionHandler).tokenServices(tokenServices());
+        resources.tokenServices(tokenServices());
         resources.accessDeniedHandler(frameAccessDeniedHandler);
     }
 
-    /**
-     * 配置解决 spring-security-oauth问题
-     * https://github.com/spring-projects/spring-security-oauth/issues/730
-     *
-     * @param applicationContext ApplicationContext
-     * @return OAuth2WebSecurityExpressionHandler
-     */
-    @Bean
-    public OAuth2WebSecurityExpressionHandler oAuth2WebSecurityExpressionHandler(ApplicationContext applicationContext) {
-        OAuth2WebSecurityExpressionHandler expressionHandler = new OAuth2WebSecurityExpressionHandler();
-        expressionHandler.setApplicationContext(applicationContext);
-        return expressionHandler;
-    }
-
     @Bean
     public PasswordEncoder passwordEncoder() {
         return PasswordEncoderFactories.createDelegatingPasswordEncoder();
@@ -88,18 +109,30 @@ public class ResourceServerConfig extends ResourceServerConfigurerAdapter {
         return new JwtTokenStore(accessTokenConverter());
     }
 
+    /**
+     * 使用认证中心发布的公钥校验签名
+     * @return
+     */
     @Bean
     public JwtAccessTokenConverter accessTokenConverter() {
-        JwtAccessTokenConverter converter = new JwtAccessTokenConverter();
-        converter.setSigningKey("123");
+        JwtAccessTokenConverter converter = new JwkVerifyingAccessTokenConverter(jwkSetCache::getVerifier);
         converter.setAccessTokenConverter(customAccessTokenConverter);
         return converter;
     }
 
+    @Bean
+    public TokenRevocationList tokenRevocationList() {
+        return new TokenRevocationList(redisTemplate);
+    }
+
+    /**
+     * 缓存已校验的token，避免每次请求都校验签名和解析claims；已吊销的jti直接拒绝
+     */
     @Bean
     @Primary
     public DefaultTokenServices tokenServices() {
-        DefaultTokenServices defaultTokenServices = new DefaultTokenServices();
+        CachingTokenServices defaultTokenServices = new CachingTokenServices(tokenCacheMaximumSize, tokenCacheExpireSeconds);
+        defaultTokenServices.setRevoked(tokenRevocationList()::isRevoked);
         defaultTokenServices.setTokenStore(tokenStore());
         return defaultTokenServices;
     }
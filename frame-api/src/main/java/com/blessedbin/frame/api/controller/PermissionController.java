@@ -0,0 +1,64 @@
+package com.blessedbin.frame.api.controller;
+
+import com.blessedbin.frame.api.entity.param.PermissionCheckParam;
+import com.blessedbin.frame.api.service.PermissionService;
+import com.blessedbin.frame.common.SimpleResponse;
+import com.blessedbin.frame.common.exception.ParamCheckRuntimeException;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collections;
+
+/**
+ * Created by xubin on 2018/11/15.
+ *
+ * 前端按钮渲染使用的批量权限校验，一次请求返回全部结果
+ *
+ * @author 37075
+ * @date 2018/11/15
+ * @time 10:05
+ * @tool intellij idea
+ */
+@RestController
+@RequestMapping(value = "/gateway/permission")
+@Log4j2
+public class PermissionController {
+
+    @Autowired
+    private PermissionService permissionService;
+
+    @Value("${frame.gateway.permission-check.max-items:256}")
+    private int maxItems;
+
+    /**
+     * 批量校验当前用户的权限
+     * @param param 待校验的请求和功能点
+     * @return 由0和1组成的掩码，依次对应requests和operations，1表示有权限
+     */
+    @PostMapping("/check")
+    public SimpleResponse<String> check(@RequestBody @Validated PermissionCheckParam param, Authentication authentication) {
+        if (param.getRequests() == null) {
+            param.setRequests(Collections.emptyList());
+        }
+        if (param.getOperations() == null) {
+            param.setOperations(Collections.emptyList());
+        }
+        int size = param.getRequests().size() + param.getOperations().size();
+        if (size > maxItems) {
+            throw new ParamCheckRuntimeException("单次最多校验" + maxItems + "项");
+        }
+        boolean[] result = permissionService.hasPermissions(authentication, param);
+        StringBuilder mask = new StringBuilder(result.length);
+        for (boolean granted : result) {
+            mask.append(granted ? '1' : '0');
+        }
+        return SimpleResponse.ok(mask.toString());
+    }
+}
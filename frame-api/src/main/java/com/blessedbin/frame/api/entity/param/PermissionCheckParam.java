@@ -0,0 +1,41 @@
+package com.blessedbin.frame.api.entity.param;
+
+import lombok.Data;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Created by xubin on 2018/11/15.
+ * 批量权限校验
+ * @author 37075
+ * @date 2018/11/15
+ * @time 9:30
+ * @tool intellij idea
+ */
+@Data
+public class PermissionCheckParam {
+
+    /**
+     * 待校验的请求，路径为前端经过网关访问的完整路径
+     */
+    @Valid
+    private List<RequestItem> requests = new ArrayList<>();
+
+    /**
+     * 待校验的功能点编码
+     */
+    private List<String> operations = new ArrayList<>();
+
+    @Data
+    public static class RequestItem {
+
+        @NotBlank
+        private String method;
+
+        @NotBlank
+        private String path;
+    }
+}
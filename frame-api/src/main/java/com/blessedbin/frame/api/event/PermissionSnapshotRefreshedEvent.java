@@ -0,0 +1,25 @@
+package com.blessedbin.frame.api.event;
+
+import com.blessedbin.frame.api.support.PermissionSnapshot;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Created by xubin on 2018/11/14.
+ *
+ * 本地权限快照内容发生变化，仅在本进程内发布
+ *
+ * @author 37075
+ * @date 2018/11/14
+ * @time 11:40
+ * @tool intellij idea
+ */
+public class PermissionSnapshotRefreshedEvent extends ApplicationEvent {
+
+    public PermissionSnapshotRefreshedEvent(PermissionSnapshot snapshot) {
+        super(snapshot);
+    }
+
+    public PermissionSnapshot getSnapshot() {
+        return (PermissionSnapshot) getSource();
+    }
+}
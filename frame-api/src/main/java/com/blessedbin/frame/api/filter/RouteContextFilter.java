@@ -0,0 +1,47 @@
+package com.blessedbin.frame.api.filter;
+
+import com.blessedbin.frame.api.support.CachingRouteLocator;
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.RequestContext;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+
+import static org.springframework.cloud.netflix.zuul.filters.support.FilterConstants.PRE_DECORATION_FILTER_ORDER;
+
+/**
+ * Created by xubin on 2018/11/13.
+ * 将鉴权阶段解析出的路由放入RequestContext，PreDecorationFilter不再重复解析
+ * @author 37075
+ * @date 2018/11/13
+ * @time 10:40
+ * @tool intellij idea
+ */
+@Component
+public class RouteContextFilter extends ZuulFilter {
+
+    @Override
+    public String filterType() {
+        return FilterConstants.PRE_TYPE;
+    }
+
+    @Override
+    public int filterOrder() {
+        return PRE_DECORATION_FILTER_ORDER - 1;
+    }
+
+    @Override
+    public boolean shouldFilter() {
+        return RequestContext.getCurrentContext().getRequest().getAttribute(CachingRouteLocator.ROUTE_KEY) != null;
+    }
+
+    @Override
+    public Object run() {
+        RequestContext requestContext = RequestContext.getCurrentContext();
+        HttpServletRequest request = requestContext.getRequest();
+        requestContext.set(CachingRouteLocator.ROUTE_KEY, request.getAttribute(CachingRouteLocator.ROUTE_KEY));
+        requestContext.set(CachingRouteLocator.PATH_KEY, request.getAttribute(CachingRouteLocator.PATH_KEY));
+        return null;
+    }
+}
@@ -12,12 +12,15 @@ import com.netflix.zuul.exception.ZuulException;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.Collections;
 
 /**
  * Created by xubin on 2018/8/22.
@@ -31,8 +34,23 @@ import javax.servlet.http.HttpServletRequest;
 @Log4j2
 public class ValidateCodeFilter extends ZuulFilter {
 
+    /**
+     * 取出并删除验证码后比较，一次往返完成，验证码无论对错只能使用一次。
+     * 返回-1表示验证码不存在，0表示不匹配，1表示匹配
+     */
+    private static final RedisScript<Long> CHECK_AND_DELETE = new DefaultRedisScript<>(
+            "local code = redis.call('GET', KEYS[1]) " +
+            "if not code then return -1 end " +
+            "redis.call('DEL', KEYS[1]) " +
+            "if code == ARGV[1] then return 1 end " +
+            "return 0", Long.class);
+
+    private static final long NOT_FOUND = -1L;
+
+    private static final long MATCHED = 1L;
+
     @Autowired
-    private RedisTemplate redisTemplate;
+    private StringRedisTemplate redisTemplate;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -119,21 +137,12 @@ public class ValidateCodeFilter extends ZuulFilter {
             throw new ValidateCodeException("参数错误");
         }
 
-        if(!redisTemplate.hasKey(token)){
+        Long result = redisTemplate.execute(CHECK_AND_DELETE, Collections.singletonList(token), validatecode);
+        if(result == null || result == NOT_FOUND){
             throw new ValidateCodeException("验证码过期，请重新获取");
         }
-
-        Object o = redisTemplate.opsForValue().get(token);
-        if(o == null) {
-            throw new ValidateCodeException("验证码过期，请重新获取");
-        }
-        String code = (String)o;
-
-        if(!validatecode.equals(code)){
-            redisTemplate.delete(token);
+        if(result != MATCHED){
             throw new ValidateCodeException("验证码错误，请重试");
         }
-
-        redisTemplate.delete(token);
     }
 }
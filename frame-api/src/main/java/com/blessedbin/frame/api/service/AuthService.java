@@ -0,0 +1,27 @@
+package com.blessedbin.frame.api.service;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import java.util.Map;
+
+/**
+ * Created by xubin on 2018/11/27.
+ *
+ * @author 37075
+ * @date 2018/11/27
+ * @time 14:05
+ * @tool intellij idea
+ */
+@FeignClient("frame-auth")
+@Service
+public interface AuthService {
+
+    /**
+     * 获取JWT签名公钥
+     * @return JWK集合
+     */
+    @GetMapping("/.well-known/jwks.json")
+    Map<String, Object> getJwkSet();
+}
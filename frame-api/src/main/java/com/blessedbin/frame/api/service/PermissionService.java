@@ -17,6 +17,7 @@
 
 package com.blessedbin.frame.api.service;
 
+import com.blessedbin.frame.api.entity.param.PermissionCheckParam;
 import org.springframework.security.core.Authentication;
 
 import javax.servlet.http.HttpServletRequest;
@@ -34,4 +35,13 @@ public interface PermissionService {
      * @return 是否有权限
      */
     boolean hasPermission(HttpServletRequest request, Authentication authentication);
+
+    /**
+     * 批量判断是否有权限
+     *
+     * @param authentication 认证信息
+     * @param param          待校验的请求和功能点
+     * @return 依次为requests和operations的校验结果
+     */
+    boolean[] hasPermissions(Authentication authentication, PermissionCheckParam param);
 }
@@ -1,10 +1,13 @@
 package com.blessedbin.frame.api.service;
 
+import com.blessedbin.frame.common.entity.FrameIdentity;
 import com.blessedbin.frame.common.entity.FramePermission;
+import com.blessedbin.frame.common.entity.FramePermissionSnapshot;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
 
@@ -16,11 +19,46 @@ import java.util.List;
  * @time 17:16
  * @tool intellij idea
  */
-@FeignClient("frame-ucenter")
+@FeignClient(value = "frame-ucenter", qualifier = UserService.QUALIFIER, primary = false)
 @Service
 public interface UserService {
 
+    /**
+     * Feign客户端的限定名，其余组件注入的是合并调用后的{@link com.blessedbin.frame.api.service.impl.CoalescingUserService}
+     */
+    String QUALIFIER = "ucenterUserService";
+
     @GetMapping("/sys/api/findUserApi/{uuid}")
     List<FramePermission> findUserApiByUuid(@PathVariable("uuid") String uuid);
 
+    /**
+     * 获取完整的API目录
+     * @return
+     */
+    @GetMapping("/sys/api/findAllApi")
+    List<FramePermission> findAllApi();
+
+    /**
+     * 获取角色拥有的全部权限id
+     * @param roleKey 角色关键字
+     * @return
+     */
+    @GetMapping("/sys/api/findRolePermission")
+    List<Integer> findRolePermission(@RequestParam("roleKey") String roleKey);
+
+    /**
+     * 获取完整的权限目录，用于网关本地快照
+     * @return
+     */
+    @GetMapping("/sys/api/findPermissionSnapshot")
+    FramePermissionSnapshot findPermissionSnapshot();
+
+    /**
+     * 获取用户身份及其角色关键字
+     * @param uuid 用户ID
+     * @return
+     */
+    @GetMapping("/i/user/findIdentityByUuid")
+    FrameIdentity findIdentityByUuid(@RequestParam("uuid") String uuid);
+
 }
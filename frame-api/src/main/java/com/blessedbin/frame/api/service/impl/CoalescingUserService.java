@@ -0,0 +1,95 @@
+package com.blessedbin.frame.api.service.impl;
+
+import com.blessedbin.frame.api.service.UserService;
+import com.blessedbin.frame.api.support.SingleFlight;
+import com.blessedbin.frame.common.entity.FrameIdentity;
+import com.blessedbin.frame.common.entity.FramePermission;
+import com.blessedbin.frame.common.entity.FramePermissionSnapshot;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+/**
+ * Created by xubin on 2018/11/8.
+ *
+ * 用户中心Feign客户端的装饰，合并相同参数的并发调用，防止缓存集中失效时击穿用户中心
+ *
+ * @author 37075
+ * @date 2018/11/8
+ * @time 10:30
+ * @tool intellij idea
+ */
+@Service
+@Primary
+public class CoalescingUserService implements UserService {
+
+    private static final String METRIC_NAME = "gateway.ucenter.calls";
+
+    @Autowired
+    @Qualifier(UserService.QUALIFIER)
+    private UserService delegate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final SingleFlight<String, List<FramePermission>> userApi = new SingleFlight<>();
+
+    private final SingleFlight<String, List<FramePermission>> allApi = new SingleFlight<>();
+
+    private final SingleFlight<String, List<Integer>> rolePermission = new SingleFlight<>();
+
+    private final SingleFlight<String, FramePermissionSnapshot> snapshot = new SingleFlight<>();
+
+    private final SingleFlight<String, FrameIdentity> identity = new SingleFlight<>();
+
+    @PostConstruct
+    public void init() {
+        register("findUserApiByUuid", userApi);
+        register("findAllApi", allApi);
+        register("findRolePermission", rolePermission);
+        register("findPermissionSnapshot", snapshot);
+        register("findIdentityByUuid", identity);
+    }
+
+    @Override
+    public List<FramePermission> findUserApiByUuid(String uuid) {
+        return userApi.execute(uuid, () -> delegate.findUserApiByUuid(uuid));
+    }
+
+    @Override
+    public List<FramePermission> findAllApi() {
+        return allApi.execute("", delegate::findAllApi);
+    }
+
+    @Override
+    public List<Integer> findRolePermission(String roleKey) {
+        return rolePermission.execute(roleKey, () -> delegate.findRolePermission(roleKey));
+    }
+
+    @Override
+    public FramePermissionSnapshot findPermissionSnapshot() {
+        return snapshot.execute("", delegate::findPermissionSnapshot);
+    }
+
+    @Override
+    public FrameIdentity findIdentityByUuid(String uuid) {
+        return identity.execute(uuid, () -> delegate.findIdentityByUuid(uuid));
+    }
+
+    private void register(String method, SingleFlight<?, ?> singleFlight) {
+        FunctionCounter.builder(METRIC_NAME, singleFlight, SingleFlight::issuedCount)
+                .tag("method", method)
+                .tag("result", "issued")
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_NAME, singleFlight, SingleFlight::coalescedCount)
+                .tag("method", method)
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+    }
+}
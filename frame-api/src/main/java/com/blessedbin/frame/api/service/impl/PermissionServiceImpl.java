@@ -1,22 +1,26 @@
 package com.blessedbin.frame.api.service.impl;
 
-import com.blessedbin.frame.common.entity.FramePermission;
+import com.blessedbin.frame.api.component.ApiPermissionIndex;
+import com.blessedbin.frame.api.component.PermissionSnapshotStore;
+import com.blessedbin.frame.api.component.UserPermissionCache;
+import com.blessedbin.frame.api.entity.param.PermissionCheckParam;
 import com.blessedbin.frame.api.service.PermissionService;
-import com.blessedbin.frame.api.service.UserService;
+import com.blessedbin.frame.api.support.CachingRouteLocator;
+import com.blessedbin.frame.api.support.PermissionBitmap;
+import com.blessedbin.frame.api.support.PermissionSnapshot;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.netflix.zuul.filters.Route;
 import org.springframework.cloud.netflix.zuul.filters.RouteLocator;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.oauth2.provider.OAuth2Authentication;
 import org.springframework.security.oauth2.provider.authentication.OAuth2AuthenticationDetails;
 import org.springframework.stereotype.Service;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.web.util.UrlPathHelper;
 
 import javax.servlet.http.HttpServletRequest;
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -35,55 +39,105 @@ import static com.blessedbin.frame.common.contant.SecurityConstants.ROLE_ADMIN_K
 public class PermissionServiceImpl implements PermissionService {
 
     @Autowired
-    private UserService userService;
+    private UserPermissionCache userPermissionCache;
 
     @Autowired
     private RouteLocator routeLocator;
 
-    private UrlPathHelper urlPathHelper = new UrlPathHelper();
+    @Autowired
+    private ApiPermissionIndex apiPermissionIndex;
+
+    @Autowired
+    private PermissionSnapshotStore snapshotStore;
 
-    private AntPathMatcher antPathMatcher = new AntPathMatcher();
+    private UrlPathHelper urlPathHelper = new UrlPathHelper();
 
 
     @Override
     public boolean hasPermission(HttpServletRequest request, Authentication authentication) {
         log.debug("access hasPermission for request:{},authentication:{}",request.getRequestURI(),authentication.getPrincipal());
 
-        Object principal = authentication.getPrincipal();
-        Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
+        if(!isUser(authentication)) {
+            return false;
+        }
+        if(isAdmin(authentication)){
+            return true;
+        }
+        // 判断是否有权限
+        PermissionBitmap granted = grantedPermissions(authentication);
+        log.debug("拥有的权限：{}",granted);
+        final String requestURI = this.urlPathHelper.getPathWithinApplication(request);
+
+        Route route = this.routeLocator.getMatchingRoute(requestURI);
+        if (route == null) {
+            return false;
+        }
+        // 后续Zuul过滤器复用解析结果
+        request.setAttribute(CachingRouteLocator.ROUTE_KEY, route);
+        request.setAttribute(CachingRouteLocator.PATH_KEY, requestURI);
 
-        if(authentication instanceof OAuth2Authentication) {
+        // 鉴权
+        return apiPermissionIndex.matches(request.getMethod(), route.getPath(), granted::contains);
+    }
 
-            Map<String, Object> extraInfo = getExtraInfo(authentication);
-            String uuid = (String)extraInfo.get("uuid");
-            log.debug("extraInfo:{}",extraInfo);
+    @Override
+    public boolean[] hasPermissions(Authentication authentication, PermissionCheckParam param) {
+        List<PermissionCheckParam.RequestItem> requests = param.getRequests();
+        List<String> operations = param.getOperations();
+        boolean[] result = new boolean[requests.size() + operations.size()];
+        if(!isUser(authentication)) {
+            return result;
+        }
+        if(isAdmin(authentication)) {
+            Arrays.fill(result, true);
+            return result;
+        }
 
-            if(principal != null){
-                if(authorities.stream().anyMatch(o -> ROLE_ADMIN_KEY.equals(o.getAuthority()))){
-                    return true;
-                } else {
-                    // 判断是否有权限
-                    List<FramePermission> api = userService.findUserApiByUuid(uuid);
-                    log.debug("拥有的权限：{}",api);
-                    final String requestURI = this.urlPathHelper.getPathWithinApplication(request);
+        // 用户权限只解析一次，各项依次在本地判断
+        PermissionBitmap granted = grantedPermissions(authentication);
+        for (int i = 0; i < requests.size(); i++) {
+            PermissionCheckParam.RequestItem item = requests.get(i);
+            Route route = this.routeLocator.getMatchingRoute(item.getPath());
+            result[i] = route != null && apiPermissionIndex.matches(item.getMethod(), route.getPath(), granted::contains);
+        }
+        if(!operations.isEmpty()) {
+            PermissionSnapshot snapshot = operationCatalogue();
+            for (int i = 0; i < operations.size(); i++) {
+                Integer id = snapshot == null ? null : snapshot.getOperationId(operations.get(i));
+                result[requests.size() + i] = id != null && granted.contains(id);
+            }
+        }
+        return result;
+    }
 
-                    Route route = this.routeLocator.getMatchingRoute(requestURI);
-                    String path = route.getPath();
-                    String method = request.getMethod();
+    private boolean isUser(Authentication authentication) {
+        return authentication instanceof OAuth2Authentication && authentication.getPrincipal() != null;
+    }
 
-                    // 鉴权
-                    return api.stream().anyMatch(framePermission -> {
-                        boolean a = framePermission.getMethod().equalsIgnoreCase(method);
-                        boolean b = antPathMatcher.match(framePermission.getUrl(), path);
-                        return a && b;
-                    });
+    private boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream().anyMatch(o -> ROLE_ADMIN_KEY.equals(o.getAuthority()));
+    }
 
-                }
-            }
+    /**
+     * 用户的有效权限，无法获取用户角色时使用令牌中的角色
+     */
+    private PermissionBitmap grantedPermissions(Authentication authentication) {
+        Map<String, Object> extraInfo = getExtraInfo(authentication);
+        log.debug("extraInfo:{}",extraInfo);
+        String uuid = (String)extraInfo.get("uuid");
+        return userPermissionCache.get(uuid, AuthorityUtils.authorityListToSet(authentication.getAuthorities()));
+    }
 
+    /**
+     * 功能点编码只保存在权限快照中，尚未拉取过快照时立即拉取一次
+     */
+    private PermissionSnapshot operationCatalogue() {
+        PermissionSnapshot snapshot = snapshotStore.getSnapshot();
+        if (snapshot == null) {
+            snapshotStore.refresh();
+            snapshot = snapshotStore.getSnapshot();
         }
-
-        return false;
+        return snapshot;
     }
 
     private Map<String, Object> getExtraInfo(Authentication auth) {
@@ -0,0 +1,36 @@
+package com.blessedbin.frame.api.support;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Created by xubin on 2018/11/7.
+ *
+ * @author 37075
+ * @date 2018/11/7
+ * @time 10:02
+ * @tool intellij idea
+ */
+public final class CacheUtils {
+
+    private CacheUtils() {
+    }
+
+    /**
+     * 读取缓存，加载失败时抛出原始的运行时异常，而不是guava包装后的异常
+     * @param cache
+     * @param key
+     * @param <K>
+     * @param <V>
+     * @return
+     */
+    public static <K, V> V get(LoadingCache<K, V> cache, K key) {
+        try {
+            return cache.getUnchecked(key);
+        } catch (UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.blessedbin.frame.api.support;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.netflix.zuul.context.RequestContext;
+import org.springframework.cloud.netflix.zuul.filters.CompositeRouteLocator;
+import org.springframework.cloud.netflix.zuul.filters.Route;
+import org.springframework.cloud.netflix.zuul.filters.RouteLocator;
+
+import java.util.Collections;
+import java.util.Optional;
+
+/**
+ * Created by xubin on 2018/11/13.
+ *
+ * 缓存请求路径到路由的解析结果。
+ * Zuul在收到RoutesRefreshedEvent或注册中心心跳变化（HeartbeatEvent）时会调用{@link #refresh()}，此时清空缓存。
+ * 鉴权阶段解析出的路由通过RequestContext传给Zuul过滤器，同一个请求只解析一次。
+ *
+ * @author 37075
+ * @date 2018/11/13
+ * @time 9:30
+ * @tool intellij idea
+ */
+public class CachingRouteLocator extends CompositeRouteLocator {
+
+    /**
+     * 已解析的路由，保存在request属性和RequestContext中
+     */
+    public static final String ROUTE_KEY = CachingRouteLocator.class.getName() + ".ROUTE";
+
+    /**
+     * 解析路由时使用的请求路径
+     */
+    public static final String PATH_KEY = CachingRouteLocator.class.getName() + ".PATH";
+
+    private final RouteLocator delegate;
+
+    private final LoadingCache<String, Optional<Route>> cache;
+
+    public CachingRouteLocator(RouteLocator delegate, long maximumSize) {
+        super(Collections.singletonList(delegate));
+        this.delegate = delegate;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .build(CacheLoader.from(path -> Optional.ofNullable(this.delegate.getMatchingRoute(path))));
+    }
+
+    @Override
+    public Route getMatchingRoute(String path) {
+        RequestContext context = RequestContext.getCurrentContext();
+        if (path.equals(context.get(PATH_KEY)) && context.get(ROUTE_KEY) instanceof Route) {
+            return (Route) context.get(ROUTE_KEY);
+        }
+        return CacheUtils.get(cache, path).orElse(null);
+    }
+
+    @Override
+    public void refresh() {
+        super.refresh();
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,87 @@
+package com.blessedbin.frame.api.support;
+
+import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.access.SecurityConfig;
+import org.springframework.security.web.FilterInvocation;
+import org.springframework.security.web.access.intercept.FilterInvocationSecurityMetadataSource;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Created by xubin on 2018/11/12.
+ *
+ * 网关的访问规则：忽略的url允许匿名访问，用户接口只需登录，其余请求需要校验API权限
+ *
+ * @author 37075
+ * @date 2018/11/12
+ * @time 9:40
+ * @tool intellij idea
+ */
+public class FrameSecurityMetadataSource implements FilterInvocationSecurityMetadataSource {
+
+    public static final ConfigAttribute PERMIT_ALL = new SecurityConfig("PERMIT_ALL");
+
+    public static final ConfigAttribute AUTHENTICATED = new SecurityConfig("AUTHENTICATED");
+
+    public static final ConfigAttribute PERMISSION = new SecurityConfig("PERMISSION");
+
+    private static final List<ConfigAttribute> ALL_ATTRIBUTES = Arrays.asList(PERMIT_ALL, AUTHENTICATED, PERMISSION);
+
+    private static final List<ConfigAttribute> PERMIT_ALL_ATTRIBUTES = Collections.singletonList(PERMIT_ALL);
+
+    private static final List<ConfigAttribute> AUTHENTICATED_ATTRIBUTES = Collections.singletonList(AUTHENTICATED);
+
+    private static final List<ConfigAttribute> PERMISSION_ATTRIBUTES = Collections.singletonList(PERMISSION);
+
+    private final List<RequestMatcher> permitAll = new ArrayList<>();
+
+    private final List<RequestMatcher> authenticated = new ArrayList<>();
+
+    public FrameSecurityMetadataSource permitAll(Collection<String> patterns) {
+        patterns.forEach(pattern -> permitAll.add(new AntPathRequestMatcher(pattern)));
+        return this;
+    }
+
+    public FrameSecurityMetadataSource authenticated(String... patterns) {
+        Arrays.stream(patterns).forEach(pattern -> authenticated.add(new AntPathRequestMatcher(pattern)));
+        return this;
+    }
+
+    @Override
+    public Collection<ConfigAttribute> getAttributes(Object object) {
+        HttpServletRequest request = ((FilterInvocation) object).getRequest();
+        if (matches(permitAll, request)) {
+            return PERMIT_ALL_ATTRIBUTES;
+        }
+        if (matches(authenticated, request)) {
+            return AUTHENTICATED_ATTRIBUTES;
+        }
+        return PERMISSION_ATTRIBUTES;
+    }
+
+    @Override
+    public Collection<ConfigAttribute> getAllConfigAttributes() {
+        return ALL_ATTRIBUTES;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return FilterInvocation.class.isAssignableFrom(clazz);
+    }
+
+    private static boolean matches(List<RequestMatcher> matchers, HttpServletRequest request) {
+        for (RequestMatcher matcher : matchers) {
+            if (matcher.matches(request)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
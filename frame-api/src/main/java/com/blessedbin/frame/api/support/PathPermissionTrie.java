@@ -0,0 +1,234 @@
+package com.blessedbin.frame.api.support;
+
+import com.blessedbin.frame.common.entity.FramePermission;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Created by xubin on 2018/11/5.
+ *
+ * 按HTTP方法分组的路径前缀树，由API目录一次性编译而成，
+ * 鉴权时沿请求路径逐段匹配，代价与路径深度相关，而与权限数量无关。
+ * 匹配语义与{@link AntPathMatcher}保持一致：
+ * <ul>
+ *     <li>普通片段按字面量匹配</li>
+ *     <li>{@code *}与{@code {var}}匹配任意一个片段</li>
+ *     <li>{@code **}匹配零个或多个片段</li>
+ *     <li>其余含通配符的片段（如{@code a*.json}）退化为单片段的AntPathMatcher匹配</li>
+ * </ul>
+ * 构建完成后只读，可在多线程间共享。
+ *
+ * @author 37075
+ * @date 2018/11/5
+ * @time 10:12
+ * @tool intellij idea
+ */
+public final class PathPermissionTrie {
+
+    private static final String SEPARATOR = "/";
+
+    private static final String DOUBLE_WILDCARD = "**";
+
+    private static final AntPathMatcher SEGMENT_MATCHER = new AntPathMatcher();
+
+    private final Map<String, Node> roots;
+
+    private final int size;
+
+    private PathPermissionTrie(Map<String, Node> roots, int size) {
+        this.roots = roots;
+        this.size = size;
+    }
+
+    public static PathPermissionTrie empty() {
+        return new PathPermissionTrie(new HashMap<>(), 0);
+    }
+
+    /**
+     * 编译API目录，缺少id、url或method的条目会被忽略
+     * @param permissions API目录
+     * @return
+     */
+    public static PathPermissionTrie build(Collection<FramePermission> permissions) {
+        Map<String, Node> roots = new HashMap<>();
+        int size = 0;
+        for (FramePermission permission : permissions) {
+            if (permission.getId() == null || StringUtils.isEmpty(permission.getUrl())
+                    || StringUtils.isEmpty(permission.getMethod())) {
+                continue;
+            }
+            Node node = roots.computeIfAbsent(permission.getMethod().toUpperCase(Locale.ENGLISH), m -> new Node(false));
+            for (String segment : tokenize(permission.getUrl())) {
+                node = node.child(segment);
+            }
+            node.addTerminal(permission.getId(), permission.getUrl().endsWith(SEPARATOR));
+            size++;
+        }
+        return new PathPermissionTrie(roots, size);
+    }
+
+    /**
+     * 判断请求是否命中任意一个已授权的API
+     * @param method 请求方法
+     * @param path 路由后的路径
+     * @param granted 判断API id是否已授权
+     * @return
+     */
+    public boolean matches(String method, String path, IntPredicate granted) {
+        if (method == null || path == null) {
+            return false;
+        }
+        Node root = roots.get(method.toUpperCase(Locale.ENGLISH));
+        if (root == null) {
+            return false;
+        }
+        return match(root, tokenize(path), 0, path.endsWith(SEPARATOR), granted);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static boolean match(Node node, String[] segments, int index, boolean trailingSlash, IntPredicate granted) {
+        if (node.doubleWildcard != null) {
+            for (int i = index; i <= segments.length; i++) {
+                if (match(node.doubleWildcard, segments, i, trailingSlash, granted)) {
+                    return true;
+                }
+            }
+        }
+
+        if (index == segments.length) {
+            if (node.matchesAnySlash) {
+                return anyGranted(node.ids, granted) || anyGranted(node.slashIds, granted);
+            }
+            return anyGranted(trailingSlash ? node.slashIds : node.ids, granted);
+        }
+
+        String segment = segments[index];
+        if (node.literals != null) {
+            Node literal = node.literals.get(segment);
+            if (literal != null && match(literal, segments, index + 1, trailingSlash, granted)) {
+                return true;
+            }
+        }
+        if (node.wildcard != null && match(node.wildcard, segments, index + 1, trailingSlash, granted)) {
+            return true;
+        }
+        if (node.patterns != null) {
+            for (int i = 0; i < node.patterns.size(); i++) {
+                if (SEGMENT_MATCHER.match(node.patternSegments.get(i), segment)
+                        && match(node.patterns.get(i), segments, index + 1, trailingSlash, granted)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean anyGranted(int[] ids, IntPredicate granted) {
+        for (int id : ids) {
+            if (granted.test(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String[] tokenize(String path) {
+        return StringUtils.tokenizeToStringArray(path, SEPARATOR, false, true);
+    }
+
+    private static boolean isWildcard(String segment) {
+        if ("*".equals(segment)) {
+            return true;
+        }
+        return segment.length() > 2 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}'
+                && segment.indexOf(':') < 0 && segment.indexOf('{', 1) < 0;
+    }
+
+    private static boolean isPattern(String segment) {
+        return segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0 || segment.indexOf('{') >= 0;
+    }
+
+    private static final class Node {
+
+        private static final int[] EMPTY = new int[0];
+
+        private final boolean matchesAnySlash;
+
+        private Map<String, Node> literals;
+
+        private Node wildcard;
+
+        private Node doubleWildcard;
+
+        private List<String> patternSegments;
+
+        private List<Node> patterns;
+
+        private int[] ids = EMPTY;
+
+        private int[] slashIds = EMPTY;
+
+        private Node(boolean matchesAnySlash) {
+            this.matchesAnySlash = matchesAnySlash;
+        }
+
+        private Node child(String segment) {
+            if (DOUBLE_WILDCARD.equals(segment)) {
+                if (doubleWildcard == null) {
+                    doubleWildcard = new Node(true);
+                }
+                return doubleWildcard;
+            }
+            if (isWildcard(segment)) {
+                if (wildcard == null) {
+                    wildcard = new Node(false);
+                }
+                return wildcard;
+            }
+            if (isPattern(segment)) {
+                if (patterns == null) {
+                    patternSegments = new ArrayList<>();
+                    patterns = new ArrayList<>();
+                }
+                int i = patternSegments.indexOf(segment);
+                if (i >= 0) {
+                    return patterns.get(i);
+                }
+                Node node = new Node(false);
+                patternSegments.add(segment);
+                patterns.add(node);
+                return node;
+            }
+            if (literals == null) {
+                literals = new HashMap<>();
+            }
+            return literals.computeIfAbsent(segment, s -> new Node(false));
+        }
+
+        private void addTerminal(int id, boolean trailingSlash) {
+            if (trailingSlash) {
+                slashIds = append(slashIds, id);
+            } else {
+                ids = append(ids, id);
+            }
+        }
+
+        private static int[] append(int[] array, int id) {
+            int[] copy = Arrays.copyOf(array, array.length + 1);
+            copy[array.length] = id;
+            return copy;
+        }
+    }
+}
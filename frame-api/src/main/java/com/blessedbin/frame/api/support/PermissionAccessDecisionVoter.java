@@ -0,0 +1,66 @@
+package com.blessedbin.frame.api.support;
+
+import com.blessedbin.frame.api.service.PermissionService;
+import org.springframework.security.access.AccessDecisionVoter;
+import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.FilterInvocation;
+
+import java.util.Collection;
+
+/**
+ * Created by xubin on 2018/11/12.
+ *
+ * 直接调用{@link PermissionService}进行鉴权，不经过SpEL表达式解析
+ *
+ * @author 37075
+ * @date 2018/11/12
+ * @time 10:15
+ * @tool intellij idea
+ */
+public class PermissionAccessDecisionVoter implements AccessDecisionVoter<FilterInvocation> {
+
+    private final PermissionService permissionService;
+
+    private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+
+    public PermissionAccessDecisionVoter(PermissionService permissionService) {
+        this.permissionService = permissionService;
+    }
+
+    @Override
+    public boolean supports(ConfigAttribute attribute) {
+        return FrameSecurityMetadataSource.PERMIT_ALL.equals(attribute)
+                || FrameSecurityMetadataSource.AUTHENTICATED.equals(attribute)
+                || FrameSecurityMetadataSource.PERMISSION.equals(attribute);
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return FilterInvocation.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public int vote(Authentication authentication, FilterInvocation invocation, Collection<ConfigAttribute> attributes) {
+        for (ConfigAttribute attribute : attributes) {
+            if (FrameSecurityMetadataSource.PERMIT_ALL.equals(attribute)) {
+                return ACCESS_GRANTED;
+            }
+            if (FrameSecurityMetadataSource.AUTHENTICATED.equals(attribute)) {
+                return isAuthenticated(authentication) ? ACCESS_GRANTED : ACCESS_DENIED;
+            }
+            if (FrameSecurityMetadataSource.PERMISSION.equals(attribute)) {
+                return isAuthenticated(authentication)
+                        && permissionService.hasPermission(invocation.getRequest(), authentication)
+                        ? ACCESS_GRANTED : ACCESS_DENIED;
+            }
+        }
+        return ACCESS_ABSTAIN;
+    }
+
+    private boolean isAuthenticated(Authentication authentication) {
+        return authentication != null && !trustResolver.isAnonymous(authentication);
+    }
+}
@@ -0,0 +1,99 @@
+package com.blessedbin.frame.api.support;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Created by xubin on 2018/11/7.
+ *
+ * 不可变的权限id位图，权限id为自增主键，分布紧凑，直接按位存储即可。
+ * 角色的位图计算一次后在所有用户间共享，用户的有效权限为其角色位图的并集。
+ *
+ * @author 37075
+ * @date 2018/11/7
+ * @time 9:35
+ * @tool intellij idea
+ */
+public final class PermissionBitmap {
+
+    public static final PermissionBitmap EMPTY = new PermissionBitmap(new long[0]);
+
+    private final long[] words;
+
+    private PermissionBitmap(long[] words) {
+        this.words = words;
+    }
+
+    public static PermissionBitmap of(Collection<Integer> ids) {
+        BitSet bitSet = new BitSet();
+        for (Integer id : ids) {
+            if (id != null && id >= 0) {
+                bitSet.set(id);
+            }
+        }
+        return bitSet.isEmpty() ? EMPTY : new PermissionBitmap(bitSet.toLongArray());
+    }
+
+    /**
+     * 合并多个位图
+     * @param bitmaps
+     * @return
+     */
+    public static PermissionBitmap union(Collection<PermissionBitmap> bitmaps) {
+        if (bitmaps.isEmpty()) {
+            return EMPTY;
+        }
+        if (bitmaps.size() == 1) {
+            return bitmaps.iterator().next();
+        }
+        int length = 0;
+        for (PermissionBitmap bitmap : bitmaps) {
+            length = Math.max(length, bitmap.words.length);
+        }
+        long[] words = new long[length];
+        Iterator<PermissionBitmap> iterator = bitmaps.iterator();
+        while (iterator.hasNext()) {
+            long[] other = iterator.next().words;
+            for (int i = 0; i < other.length; i++) {
+                words[i] |= other[i];
+            }
+        }
+        return new PermissionBitmap(words);
+    }
+
+    public boolean contains(int id) {
+        if (id < 0) {
+            return false;
+        }
+        int index = id >>> 6;
+        return index < words.length && (words[index] & (1L << id)) != 0;
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @return 升序排列的权限id
+     */
+    public List<Integer> toList() {
+        List<Integer> ids = new ArrayList<>(cardinality());
+        BitSet bitSet = BitSet.valueOf(words);
+        for (int id = bitSet.nextSetBit(0); id >= 0; id = bitSet.nextSetBit(id + 1)) {
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    @Override
+    public String toString() {
+        return BitSet.valueOf(words).toString();
+    }
+}
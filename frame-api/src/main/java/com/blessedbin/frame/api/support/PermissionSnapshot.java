@@ -0,0 +1,250 @@
+package com.blessedbin.frame.api.support;
+
+import com.blessedbin.frame.common.entity.FramePermission;
+import com.blessedbin.frame.common.entity.FramePermissionSnapshot;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Created by xubin on 2018/11/14.
+ *
+ * 权限目录的本地快照。
+ * 文件格式：魔数、格式版本、内容版本、生成时间，随后依次为API列表、角色权限列表和功能点编码，
+ * 读取时通过内存映射解析。内容版本为目录内容的哈希，内容不变时不重写文件。
+ *
+ * @author 37075
+ * @date 2018/11/14
+ * @time 10:20
+ * @tool intellij idea
+ */
+public final class PermissionSnapshot {
+
+    private static final int MAGIC = 0x46524D50;
+
+    private static final int FORMAT_VERSION = 2;
+
+    private final long version;
+
+    private final long createTime;
+
+    private final List<FramePermission> apis;
+
+    private final Map<String, PermissionBitmap> roles;
+
+    private final Map<String, Integer> operations;
+
+    private PermissionSnapshot(long version, long createTime, List<FramePermission> apis,
+                               Map<String, List<Integer>> roles, Map<String, Integer> operations) {
+        this.version = version;
+        this.createTime = createTime;
+        this.apis = Collections.unmodifiableList(apis);
+        Map<String, PermissionBitmap> bitmaps = new HashMap<>(roles.size());
+        roles.forEach((roleKey, ids) -> bitmaps.put(roleKey, PermissionBitmap.of(ids)));
+        this.roles = Collections.unmodifiableMap(bitmaps);
+        this.operations = Collections.unmodifiableMap(operations);
+    }
+
+    public static PermissionSnapshot of(FramePermissionSnapshot catalogue) {
+        List<FramePermission> apis = new ArrayList<>(catalogue.getApis() == null
+                ? Collections.emptyList() : catalogue.getApis());
+        apis.removeIf(api -> api.getId() == null || api.getUrl() == null || api.getMethod() == null);
+        apis.sort(Comparator.comparing(FramePermission::getId));
+
+        Map<String, List<Integer>> roles = new TreeMap<>();
+        if (catalogue.getRoles() != null) {
+            catalogue.getRoles().forEach((roleKey, ids) -> {
+                List<Integer> sorted = new ArrayList<>(ids);
+                sorted.removeIf(id -> id == null);
+                Collections.sort(sorted);
+                roles.put(roleKey, sorted);
+            });
+        }
+
+        Map<String, Integer> operations = new TreeMap<>();
+        if (catalogue.getOperations() != null) {
+            catalogue.getOperations().forEach((code, id) -> {
+                if (code != null && id != null) {
+                    operations.put(code, id);
+                }
+            });
+        }
+        return new PermissionSnapshot(fingerprint(apis, roles, operations), System.currentTimeMillis(),
+                apis, roles, operations);
+    }
+
+    /**
+     * 读取快照文件
+     * @param path 文件路径
+     * @return
+     * @throws IOException 文件不存在或格式不正确
+     */
+    public static PermissionSnapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new IOException("不支持的快照文件：" + path);
+            }
+            long version = buffer.getLong();
+            long createTime = buffer.getLong();
+
+            int apiCount = buffer.getInt();
+            List<FramePermission> apis = new ArrayList<>(apiCount);
+            for (int i = 0; i < apiCount; i++) {
+                int id = buffer.getInt();
+                String method = readString(buffer);
+                String url = readString(buffer);
+                apis.add(new FramePermission(id, url, method));
+            }
+
+            int roleCount = buffer.getInt();
+            Map<String, List<Integer>> roles = new TreeMap<>();
+            for (int i = 0; i < roleCount; i++) {
+                String roleKey = readString(buffer);
+                int idCount = buffer.getInt();
+                List<Integer> ids = new ArrayList<>(idCount);
+                for (int j = 0; j < idCount; j++) {
+                    ids.add(buffer.getInt());
+                }
+                roles.put(roleKey, ids);
+            }
+
+            int operationCount = buffer.getInt();
+            Map<String, Integer> operations = new TreeMap<>();
+            for (int i = 0; i < operationCount; i++) {
+                String code = readString(buffer);
+                operations.put(code, buffer.getInt());
+            }
+            if (fingerprint(apis, roles, operations) != version) {
+                throw new IOException("快照文件已损坏：" + path);
+            }
+            return new PermissionSnapshot(version, createTime, apis, roles, operations);
+        } catch (RuntimeException e) {
+            throw new IOException("快照文件已损坏：" + path, e);
+        }
+    }
+
+    /**
+     * 写入快照文件，先写临时文件再替换，避免读到写了一半的文件
+     * @param path 文件路径
+     * @throws IOException
+     */
+    public void write(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream file = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(version);
+                out.writeLong(createTime);
+                out.writeInt(apis.size());
+                for (FramePermission api : apis) {
+                    out.writeInt(api.getId());
+                    writeString(out, api.getMethod());
+                    writeString(out, api.getUrl());
+                }
+                Map<String, List<Integer>> ids = roleIds();
+                out.writeInt(ids.size());
+                for (Map.Entry<String, List<Integer>> entry : ids.entrySet()) {
+                    writeString(out, entry.getKey());
+                    out.writeInt(entry.getValue().size());
+                    for (Integer id : entry.getValue()) {
+                        out.writeInt(id);
+                    }
+                }
+                out.writeInt(operations.size());
+                for (Map.Entry<String, Integer> entry : operations.entrySet()) {
+                    writeString(out, entry.getKey());
+                    out.writeInt(entry.getValue());
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getCreateTime() {
+        return createTime;
+    }
+
+    public List<FramePermission> getApis() {
+        return apis;
+    }
+
+    /**
+     * @param roleKey 角色关键字
+     * @return 角色的权限位图，快照中没有该角色时返回空位图
+     */
+    public PermissionBitmap getRole(String roleKey) {
+        return roles.getOrDefault(roleKey, PermissionBitmap.EMPTY);
+    }
+
+    /**
+     * @param code 功能点编码
+     * @return 功能点的权限id，不存在时返回null
+     */
+    public Integer getOperationId(String code) {
+        return operations.get(code);
+    }
+
+    private Map<String, List<Integer>> roleIds() {
+        Map<String, List<Integer>> ids = new TreeMap<>();
+        roles.forEach((roleKey, bitmap) -> ids.put(roleKey, bitmap.toList()));
+        return ids;
+    }
+
+    private static long fingerprint(List<FramePermission> apis, Map<String, List<Integer>> roles,
+                                    Map<String, Integer> operations) {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        for (FramePermission api : apis) {
+            hasher.putInt(api.getId())
+                    .putString(api.getMethod(), StandardCharsets.UTF_8).putByte((byte) 0)
+                    .putString(api.getUrl(), StandardCharsets.UTF_8).putByte((byte) 0);
+        }
+        roles.forEach((roleKey, ids) -> {
+            hasher.putString(roleKey, StandardCharsets.UTF_8).putByte((byte) 0).putInt(ids.size());
+            ids.forEach(hasher::putInt);
+        });
+        operations.forEach((code, id) -> hasher.putString(code, StandardCharsets.UTF_8).putByte((byte) 0).putInt(id));
+        return hasher.hash().asLong();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
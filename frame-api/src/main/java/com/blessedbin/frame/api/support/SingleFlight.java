@@ -0,0 +1,77 @@
+package com.blessedbin.frame.api.support;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Created by xubin on 2018/11/8.
+ *
+ * 合并相同key的并发调用：同一时刻每个key只发出一次远程调用，其余调用方等待该调用的结果
+ *
+ * @author 37075
+ * @date 2018/11/8
+ * @time 9:50
+ * @tool intellij idea
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+    private final LongAdder issued = new LongAdder();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    public V execute(K key, Supplier<V> supplier) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = calls.putIfAbsent(key, call);
+        if (inFlight != null) {
+            coalesced.increment();
+            return await(inFlight);
+        }
+
+        issued.increment();
+        try {
+            V value = supplier.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, call);
+        }
+    }
+
+    /**
+     * @return 实际发出的调用次数
+     */
+    public long issuedCount() {
+        return issued.sum();
+    }
+
+    /**
+     * @return 被合并的调用次数
+     */
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    private V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.blessedbin.frame.api.support;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Created by xubin on 2018/12/5.
+ *
+ * 失效时丢弃加载中结果的缓存。guava的invalidate不影响正在进行的加载，加载开始后才提交的变更会被旧结果覆盖，
+ * 因此每条记录带上加载开始时的版本号，失效时递增版本并记下该key的失效版本，读取时早于失效版本的记录重新加载。
+ *
+ * @author 37075
+ * @date 2018/12/5
+ * @time 14:30
+ * @tool intellij idea
+ */
+public class VersionedLoadingCache<K, V> {
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final AtomicLong allInvalidatedAt = new AtomicLong();
+
+    private final LoadingCache<K, Entry<V>> cache;
+
+    /**
+     * key -> 失效时的版本号，保留两个有效期，足以覆盖失效时仍在加载、之后才写入的记录
+     */
+    private final Cache<K, Long> invalidatedAt;
+
+    /**
+     * @param maximumSize 最大数量，小于等于0时不限制
+     * @param expireSeconds 写入后的有效期
+     * @param loader 加载函数
+     */
+    public VersionedLoadingCache(long maximumSize, long expireSeconds, Function<? super K, ? extends V> loader) {
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+                .expireAfterWrite(expireSeconds, TimeUnit.SECONDS);
+        if (maximumSize > 0) {
+            builder.maximumSize(maximumSize);
+        }
+        this.cache = builder.build(new CacheLoader<K, Entry<V>>() {
+            @Override
+            public Entry<V> load(K key) {
+                long loadVersion = version.get();
+                return new Entry<>(loadVersion, loader.apply(key));
+            }
+        });
+        this.invalidatedAt = CacheBuilder.newBuilder()
+                .expireAfterWrite(expireSeconds * 2, TimeUnit.SECONDS)
+                .build();
+    }
+
+    public V get(K key) {
+        while (true) {
+            Entry<V> entry = CacheUtils.get(cache, key);
+            if (isCurrent(key, entry)) {
+                return entry.value;
+            }
+            cache.asMap().remove(key, entry);
+        }
+    }
+
+    public void invalidate(Collection<? extends K> keys) {
+        for (K key : keys) {
+            invalidatedAt.asMap().merge(key, version.incrementAndGet(), Math::max);
+            cache.invalidate(key);
+        }
+    }
+
+    public void invalidateAll() {
+        allInvalidatedAt.accumulateAndGet(version.incrementAndGet(), Math::max);
+        cache.invalidateAll();
+    }
+
+    private boolean isCurrent(K key, Entry<V> entry) {
+        if (entry.version < allInvalidatedAt.get()) {
+            return false;
+        }
+        Long keyInvalidatedAt = invalidatedAt.getIfPresent(key);
+        return keyInvalidatedAt == null || entry.version >= keyInvalidatedAt;
+    }
+
+    private static final class Entry<V> {
+
+        private final long version;
+
+        private final V value;
+
+        private Entry(long version, V value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+}
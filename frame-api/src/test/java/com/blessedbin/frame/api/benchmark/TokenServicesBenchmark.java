@@ -0,0 +1,139 @@
+package com.blessedbin.frame.api.benchmark;
+
+import com.blessedbin.frame.api.config.CustomAccessTokenConverter;
+import com.blessedbin.frame.common.security.CachingTokenServices;
+import com.blessedbin.frame.common.security.JwkVerifyingAccessTokenConverter;
+import com.blessedbin.frame.common.security.RsaJwk;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.jwt.crypto.sign.RsaSigner;
+import org.springframework.security.jwt.crypto.sign.RsaVerifier;
+import org.springframework.security.jwt.crypto.sign.SignatureVerifier;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.util.JsonParser;
+import org.springframework.security.oauth2.common.util.JsonParserFactory;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by xubin on 2018/11/9.
+ *
+ * 对比网关加载token的开销：cold为每次按kid选取公钥校验RS256签名并解析claims，warm为命中缓存。
+ * token由认证中心同样格式的RSA密钥签发，校验与网关一样使用{@link JwkVerifyingAccessTokenConverter}。
+ * 运行：执行main方法，或 java -cp target/test-classes:&lt;依赖&gt; org.openjdk.jmh.Main TokenServicesBenchmark
+ *
+ * @author 37075
+ * @date 2018/11/9
+ * @time 14:30
+ * @tool intellij idea
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenServicesBenchmark {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private DefaultTokenServices cold;
+
+    private CachingTokenServices warm;
+
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+        String keyId = RsaJwk.thumbprint(publicKey);
+        SignatureVerifier verifier = new RsaVerifier(publicKey);
+
+        CustomAccessTokenConverter accessTokenConverter = new CustomAccessTokenConverter();
+        JwkVerifyingAccessTokenConverter converter = new JwkVerifyingAccessTokenConverter(
+                kid -> keyId.equals(kid) ? verifier : null);
+        converter.setAccessTokenConverter(accessTokenConverter);
+        JwtTokenStore tokenStore = new JwtTokenStore(converter);
+
+        cold = new DefaultTokenServices();
+        cold.setTokenStore(tokenStore);
+        warm = new CachingTokenServices(10000, 600);
+        warm.setTokenStore(tokenStore);
+
+        OAuth2Request request = new OAuth2Request(Collections.emptyMap(), "frame", AuthorityUtils.NO_AUTHORITIES,
+                true, Collections.singleton("server"), Collections.emptySet(), null, Collections.emptySet(), null);
+        UsernamePasswordAuthenticationToken user = new UsernamePasswordAuthenticationToken("admin", "N/A",
+                AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_AUDIT"));
+        DefaultOAuth2AccessToken accessToken = new DefaultOAuth2AccessToken("value");
+        accessToken.setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)));
+        Map<String, Object> additional = new HashMap<>();
+        additional.put("uuid", "f0a8c1d2-7f0b-4c4a-9a3e-2f8d3c2b1a00");
+        accessToken.setAdditionalInformation(additional);
+        Map<String, ?> claims = accessTokenConverter.convertAccessToken(accessToken, new OAuth2Authentication(request, user));
+        token = sign(claims, keyId, (RSAPrivateKey) keyPair.getPrivate());
+
+        warm.loadAuthentication(token);
+    }
+
+    @Benchmark
+    public OAuth2Authentication cold() {
+        return cold.loadAuthentication(token);
+    }
+
+    @Benchmark
+    public OAuth2Authentication warm() {
+        return warm.loadAuthentication(token);
+    }
+
+    /**
+     * 与认证中心签发的token格式一致，头部带kid
+     */
+    private static String sign(Map<String, ?> claims, String keyId, RSAPrivateKey privateKey) {
+        JsonParser jsonParser = JsonParserFactory.create();
+        Map<String, Object> headers = new LinkedHashMap<>();
+        headers.put("alg", RsaJwk.ALGORITHM);
+        headers.put("typ", "JWT");
+        headers.put(RsaJwk.KEY_ID, keyId);
+        String signingInput = ENCODER.encodeToString(jsonParser.formatMap(headers).getBytes(StandardCharsets.UTF_8))
+                + "." + ENCODER.encodeToString(jsonParser.formatMap(claims).getBytes(StandardCharsets.UTF_8));
+        byte[] signature = new RsaSigner(privateKey).sign(signingInput.getBytes(StandardCharsets.UTF_8));
+        return signingInput + "." + ENCODER.encodeToString(signature);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenServicesBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,144 @@
+package com.blessedbin.frame.api.component;
+
+import com.blessedbin.frame.api.service.UserService;
+import com.blessedbin.frame.api.support.PermissionBitmap;
+import com.blessedbin.frame.api.support.PermissionSnapshot;
+import com.blessedbin.frame.common.entity.FrameIdentity;
+import com.blessedbin.frame.common.entity.FramePermissionSnapshot;
+import com.blessedbin.frame.common.event.FrameCacheEvictEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Created by xubin on 2018/11/6.
+ *
+ * 不启动总线，事件直接在本进程的ApplicationContext内投递
+ *
+ * @author 37075
+ * @date 2018/11/6
+ * @time 15:02
+ * @tool intellij idea
+ */
+public class UserPermissionCacheTest {
+
+    private static final String UUID = "user-1";
+
+    private static final String OTHER_UUID = "user-2";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private AnnotationConfigApplicationContext context;
+
+    private UserService userService;
+
+    private UserPermissionCache cache;
+
+    @Before
+    public void setUp() throws IOException {
+        userService = mock(UserService.class);
+        when(userService.findIdentityByUuid(UUID)).thenReturn(user(UUID, "ROLE_USER", "ROLE_AUDIT"));
+        when(userService.findIdentityByUuid(OTHER_UUID)).thenReturn(user(OTHER_UUID, "ROLE_AUDIT", "ROLE_USER"));
+        when(userService.findRolePermission("ROLE_USER")).thenReturn(Arrays.asList(1, 2));
+        when(userService.findRolePermission("ROLE_AUDIT")).thenReturn(Collections.singletonList(130));
+
+        Map<String, List<Integer>> roles = new HashMap<>();
+        roles.put("ROLE_USER", Arrays.asList(1, 2));
+        roles.put("ROLE_AUDIT", Collections.singletonList(130));
+        File snapshot = new File(folder.getRoot(), "permission-snapshot.bin");
+        PermissionSnapshot.of(FramePermissionSnapshot.builder().roles(roles).build()).write(snapshot.toPath());
+
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test",
+                Collections.singletonMap("frame.gateway.snapshot.path", snapshot.getPath())));
+        context.getBeanFactory().registerSingleton("userService", userService);
+        context.register(PermissionSnapshotStore.class, RolePermissionCache.class, UserPermissionCache.class);
+        context.refresh();
+        cache = context.getBean(UserPermissionCache.class);
+    }
+
+    @After
+    public void tearDown() {
+        context.close();
+    }
+
+    @Test
+    public void unionOfRoleBitmaps() {
+        PermissionBitmap bitmap = cache.get(UUID);
+        assertTrue(bitmap.contains(1));
+        assertTrue(bitmap.contains(130));
+        assertFalse(bitmap.contains(3));
+
+        // 相同角色组合共享同一个位图，每个角色只加载一次
+        assertSame(bitmap, cache.get(OTHER_UUID));
+        verify(userService, times(1)).findRolePermission("ROLE_USER");
+    }
+
+    @Test
+    public void userRoleChanged() {
+        cache.get(UUID);
+        publish(FrameCacheEvictEvent.Region.USER_ROLE, OTHER_UUID);
+        cache.get(UUID);
+        verify(userService, times(1)).findIdentityByUuid(UUID);
+
+        publish(FrameCacheEvictEvent.Region.USER_ROLE, UUID);
+        cache.get(UUID);
+        verify(userService, times(2)).findIdentityByUuid(UUID);
+    }
+
+    @Test
+    public void rolePermissionChanged() {
+        cache.get(UUID);
+        when(userService.findRolePermission("ROLE_USER")).thenReturn(Collections.singletonList(3));
+        publish(FrameCacheEvictEvent.Region.ROLE_PERMISSION, "ROLE_USER");
+
+        PermissionBitmap bitmap = cache.get(UUID);
+        assertTrue(bitmap.contains(3));
+        assertFalse(bitmap.contains(1));
+        verify(userService, times(1)).findIdentityByUuid(UUID);
+        verify(userService, times(1)).findRolePermission("ROLE_AUDIT");
+    }
+
+    @Test
+    public void ucenterUnavailable() {
+        when(userService.findIdentityByUuid(UUID)).thenThrow(new RuntimeException("ucenter down"));
+        when(userService.findRolePermission("ROLE_USER")).thenThrow(new RuntimeException("ucenter down"));
+
+        // 角色取自令牌，权限取自本地快照
+        PermissionBitmap bitmap = cache.get(UUID, Collections.singletonList("ROLE_USER"));
+        assertTrue(bitmap.contains(1));
+        assertFalse(bitmap.contains(130));
+    }
+
+    private void publish(FrameCacheEvictEvent.Region region, String key) {
+        context.publishEvent(new FrameCacheEvictEvent(this, "test", region, Collections.singletonList(key)));
+    }
+
+    private static FrameIdentity user(String uuid, String... roleKeys) {
+        return FrameIdentity.builder()
+                .uuid(uuid)
+                .roleKeys(Arrays.asList(roleKeys))
+                .build();
+    }
+}
@@ -0,0 +1,56 @@
+package com.blessedbin.frame.api.support;
+
+import com.blessedbin.frame.common.entity.FramePermission;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by xubin on 2018/11/5.
+ *
+ * @author 37075
+ * @date 2018/11/5
+ * @time 14:20
+ * @tool intellij idea
+ */
+public class PathPermissionTrieTest {
+
+    private final PathPermissionTrie trie = PathPermissionTrie.build(Arrays.asList(
+            new FramePermission(1, "/sys/user", "GET"),
+            new FramePermission(2, "/sys/user/{uuid}", "get"),
+            new FramePermission(3, "/sys/menu/**", "POST"),
+            new FramePermission(4, "/sys/file/*.json", "GET"),
+            new FramePermission(5, "/sys/user/reset_password", "PUT")
+    ));
+
+    @Test
+    public void literalAndVariable() {
+        assertTrue(trie.matches("GET", "/sys/user", id -> id == 1));
+        assertTrue(trie.matches("GET", "/sys/user/abc", id -> id == 2));
+        assertFalse(trie.matches("GET", "/sys/user/abc", id -> id == 1));
+        assertFalse(trie.matches("GET", "/sys/user/abc/def", id -> true));
+        assertFalse(trie.matches("POST", "/sys/user", id -> true));
+    }
+
+    @Test
+    public void doubleWildcard() {
+        assertTrue(trie.matches("POST", "/sys/menu", id -> id == 3));
+        assertTrue(trie.matches("POST", "/sys/menu/1/operation", id -> id == 3));
+        assertFalse(trie.matches("GET", "/sys/menu/1", id -> true));
+    }
+
+    @Test
+    public void segmentPattern() {
+        assertTrue(trie.matches("GET", "/sys/file/tree.json", id -> id == 4));
+        assertFalse(trie.matches("GET", "/sys/file/tree.xml", id -> true));
+    }
+
+    @Test
+    public void literalAndVariableOverlap() {
+        assertTrue(trie.matches("PUT", "/sys/user/reset_password", id -> id == 5));
+        assertTrue(trie.matches("GET", "/sys/user/reset_password", id -> id == 2));
+    }
+}
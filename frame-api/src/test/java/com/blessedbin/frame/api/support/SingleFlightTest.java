@@ -0,0 +1,85 @@
+package com.blessedbin.frame.api.support;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Created by xubin on 2018/11/8.
+ *
+ * @author 37075
+ * @date 2018/11/8
+ * @time 14:10
+ * @tool intellij idea
+ */
+public class SingleFlightTest {
+
+    @Test
+    public void concurrentCallsAreCoalesced() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<Integer> first = executor.submit(() -> singleFlight.execute("uuid", () -> {
+                started.countDown();
+                await(release);
+                return calls.incrementAndGet();
+            }));
+            started.await(5, TimeUnit.SECONDS);
+
+            List<Future<Integer>> waiters = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                waiters.add(executor.submit(() -> singleFlight.execute("uuid", calls::incrementAndGet)));
+            }
+            while (singleFlight.coalescedCount() < 7) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            assertEquals(Integer.valueOf(1), first.get(5, TimeUnit.SECONDS));
+            for (Future<Integer> waiter : waiters) {
+                assertEquals(Integer.valueOf(1), waiter.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.get());
+            assertEquals(1, singleFlight.issuedCount());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 调用结束后不再合并
+        assertEquals(Integer.valueOf(2), singleFlight.execute("uuid", calls::incrementAndGet));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void failureIsNotCached() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        try {
+            singleFlight.execute("uuid", () -> {
+                throw new IllegalStateException();
+            });
+        } catch (IllegalStateException e) {
+            assertEquals(Integer.valueOf(1), singleFlight.execute("uuid", () -> 1));
+            throw e;
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
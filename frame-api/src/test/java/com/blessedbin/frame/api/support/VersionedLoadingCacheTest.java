@@ -0,0 +1,69 @@
+package com.blessedbin.frame.api.support;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Created by xubin on 2018/12/5.
+ *
+ * @author 37075
+ * @date 2018/12/5
+ * @time 15:10
+ * @tool intellij idea
+ */
+public class VersionedLoadingCacheTest {
+
+    private final Map<String, Integer> loads = new HashMap<>();
+
+    @Test
+    public void invalidateOnlyReloadsGivenKeys() {
+        VersionedLoadingCache<String, Integer> cache = new VersionedLoadingCache<>(0, 300, this::load);
+        cache.get("a");
+        cache.get("b");
+
+        cache.invalidate(Collections.singletonList("a"));
+        assertEquals(Integer.valueOf(2), cache.get("a"));
+        assertEquals(Integer.valueOf(1), cache.get("b"));
+    }
+
+    @Test
+    public void invalidateDuringLoadDiscardsResult() {
+        AtomicReference<VersionedLoadingCache<String, Integer>> holder = new AtomicReference<>();
+        holder.set(new VersionedLoadingCache<>(0, 300, key -> {
+            int n = load(key);
+            if (n == 1) {
+                // 模拟加载期间提交的变更
+                holder.get().invalidate(Collections.singletonList(key));
+            }
+            return n;
+        }));
+
+        assertEquals(Integer.valueOf(2), holder.get().get("a"));
+        assertEquals(Integer.valueOf(2), holder.get().get("a"));
+    }
+
+    @Test
+    public void invalidateAllDuringLoadDiscardsResult() {
+        AtomicReference<VersionedLoadingCache<String, Integer>> holder = new AtomicReference<>();
+        holder.set(new VersionedLoadingCache<>(0, 300, key -> {
+            int n = load(key);
+            if (n == 1) {
+                holder.get().invalidateAll();
+            }
+            return n;
+        }));
+
+        assertEquals(Integer.valueOf(2), holder.get().get("a"));
+        assertEquals(Integer.valueOf(2), holder.get().get("a"));
+    }
+
+    private int load(String key) {
+        return loads.merge(key, 1, Integer::sum);
+    }
+}
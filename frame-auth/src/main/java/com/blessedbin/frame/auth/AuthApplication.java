@@ -1,12 +1,15 @@
 package com.blessedbin.frame.auth;
 
+import com.blessedbin.frame.common.event.FrameCacheEvictEvent;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.bus.jackson.RemoteApplicationEventScan;
 import org.springframework.cloud.client.SpringCloudApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 /**
@@ -18,6 +21,8 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 @Log4j2
 @EnableAspectJAutoProxy
 @EnableFeignClients
+@EnableScheduling
+@RemoteApplicationEventScan(basePackageClasses = FrameCacheEvictEvent.class)
 public class AuthApplication {
 
     public static void main(String[] args) {
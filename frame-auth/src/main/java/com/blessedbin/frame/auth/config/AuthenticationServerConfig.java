@@ -1,12 +1,24 @@
 package com.blessedbin.frame.auth.config;
 
+import com.blessedbin.frame.auth.support.CachingClientDetailsService;
 import com.blessedbin.frame.auth.support.FrameUserDetail;
+import com.blessedbin.frame.auth.support.JwtSigningKeys;
+import com.blessedbin.frame.auth.support.KeyIdJwtAccessTokenConverter;
+import com.blessedbin.frame.common.security.CachingTokenServices;
+import com.blessedbin.frame.common.security.RsaJwk;
+import com.blessedbin.frame.common.security.TokenRevocationList;
+import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -17,6 +29,7 @@ import org.springframework.security.oauth2.config.annotation.web.configuration.E
 import org.springframework.security.oauth2.config.annotation.web.configurers.AuthorizationServerEndpointsConfigurer;
 import org.springframework.security.oauth2.config.annotation.web.configurers.AuthorizationServerSecurityConfigurer;
 import org.springframework.security.oauth2.provider.client.JdbcClientDetailsService;
+import org.springframework.security.oauth2.provider.error.OAuth2AuthenticationEntryPoint;
 import org.springframework.security.oauth2.provider.error.WebResponseExceptionTranslator;
 import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
 import org.springframework.security.oauth2.provider.token.TokenEnhancer;
@@ -24,10 +37,20 @@ import org.springframework.security.oauth2.provider.token.TokenEnhancerChain;
 import org.springframework.security.oauth2.provider.token.TokenStore;
 import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
 import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+import org.springframework.util.StringUtils;
 
 import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.interfaces.RSAPublicKey;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -41,8 +64,10 @@ import java.util.Map;
 @Configuration
 @Order(Integer.MIN_VALUE)
 @EnableAuthorizationServer
+@Log4j2
 public class AuthenticationServerConfig extends AuthorizationServerConfigurerAdapter {
 
+    private static final String DEV_PROFILE = "dev";
 
     @Autowired
     private AuthenticationManager authenticationManager;
@@ -64,6 +89,54 @@ public class AuthenticationServerConfig extends AuthorizationServerConfigurerAda
     @Autowired
     private WebResponseExceptionTranslator frameWebResponseExceptionTranslator;
 
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${frame.auth.token-cache.maximum-size:10000}")
+    private long tokenCacheMaximumSize;
+
+    @Value("${frame.auth.token-cache.expire-seconds:600}")
+    private long tokenCacheExpireSeconds;
+
+    @Value("${frame.auth.client-cache.maximum-size:1000}")
+    private long clientCacheMaximumSize;
+
+    @Value("${frame.auth.client-cache.expire-seconds:600}")
+    private long clientCacheExpireSeconds;
+
+    @Value("${frame.auth.client-cache.missing-maximum-size:100}")
+    private long missingClientCacheMaximumSize;
+
+    @Value("${frame.auth.client-cache.missing-expire-seconds:30}")
+    private long missingClientCacheExpireSeconds;
+
+    /**
+     * JWT签名密钥库，必须配置；只有dev环境允许缺省，此时生成临时密钥，重启后已签发的token全部失效
+     */
+    @Value("${frame.auth.jwt.key-store:}")
+    private String keyStoreLocation;
+
+    @Value("${frame.auth.jwt.key-store-password:}")
+    private String keyStorePassword;
+
+    @Value("${frame.auth.jwt.key-alias:frame}")
+    private String keyAlias;
+
+    /**
+     * 为空时与key-store-password相同
+     */
+    @Value("${frame.auth.jwt.key-password:}")
+    private String keyPassword;
+
+    /**
+     * 已轮换下来的密钥别名，只发布公钥，直到其签发的token全部过期
+     */
+    @Value("${frame.auth.jwt.retired-key-aliases:}")
+    private String[] retiredKeyAliases;
+
 
     @Bean
     public TokenStore tokenStore() {
@@ -72,15 +145,69 @@ public class AuthenticationServerConfig extends AuthorizationServerConfigurerAda
 
     @Bean
     public JwtAccessTokenConverter accessTokenConverter() {
-        JwtAccessTokenConverter converter = new JwtAccessTokenConverter();
-        converter.setSigningKey("123");
+        JwtAccessTokenConverter converter = new KeyIdJwtAccessTokenConverter(jwtSigningKeys());
         converter.setAccessTokenConverter(customAccessTokenConverter);
         return converter;
     }
 
+    /**
+     * JWT签名密钥，公钥通过/.well-known/jwks.json发布
+     * @return
+     */
+    @Bean
+    public JwtSigningKeys jwtSigningKeys() {
+        try {
+            return loadSigningKeys();
+        } catch (GeneralSecurityException | IOException e) {
+            throw new IllegalStateException("加载JWT签名密钥失败：" + keyStoreLocation, e);
+        }
+    }
+
+    private JwtSigningKeys loadSigningKeys() throws GeneralSecurityException, IOException {
+        if (!StringUtils.hasText(keyStoreLocation)) {
+            // 各实例各自生成密钥时，网关只能拿到其中一个实例的公钥，登录会间歇失败
+            if (!environment.acceptsProfiles(DEV_PROFILE)) {
+                throw new IllegalStateException("未配置frame.auth.jwt.key-store，只有dev环境允许使用临时生成的RSA密钥");
+            }
+            log.warn("未配置frame.auth.jwt.key-store，使用临时生成的RSA密钥，重启后已签发的token将全部失效");
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return new JwtSigningKeys(generator.generateKeyPair(), null, null);
+        }
+
+        Resource resource = new DefaultResourceLoader().getResource(keyStoreLocation);
+        KeyStore keyStore = KeyStore.getInstance(keyStoreLocation.endsWith(".p12") ? "PKCS12" : "JKS");
+        try (InputStream in = resource.getInputStream()) {
+            keyStore.load(in, keyStorePassword.toCharArray());
+        }
+        String password = StringUtils.hasText(keyPassword) ? keyPassword : keyStorePassword;
+        PrivateKey privateKey = (PrivateKey) keyStore.getKey(keyAlias, password.toCharArray());
+        if (privateKey == null) {
+            throw new IllegalStateException("密钥库中不存在密钥：" + keyAlias);
+        }
+        KeyPair keyPair = new KeyPair(keyStore.getCertificate(keyAlias).getPublicKey(), privateKey);
+
+        Map<String, RSAPublicKey> retired = new LinkedHashMap<>();
+        for (String alias : retiredKeyAliases) {
+            if (keyStore.getCertificate(alias) != null) {
+                RSAPublicKey publicKey = (RSAPublicKey) keyStore.getCertificate(alias).getPublicKey();
+                retired.put(RsaJwk.thumbprint(publicKey), publicKey);
+            } else {
+                log.warn("密钥库中不存在已轮换的密钥：{}", alias);
+            }
+        }
+        JwtSigningKeys signingKeys = new JwtSigningKeys(keyPair, null, retired);
+        log.info("JWT签名密钥：{}，已轮换的密钥{}个", signingKeys.getKeyId(), retired.size());
+        return signingKeys;
+    }
+
     @Override
     public void configure(AuthorizationServerSecurityConfigurer oauthServer) {
-        oauthServer.allowFormAuthenticationForClients()
+        // 客户端认证失败同样使用自定义的异常转换，密码校验繁忙时返回503
+        OAuth2AuthenticationEntryPoint authenticationEntryPoint = new OAuth2AuthenticationEntryPoint();
+        authenticationEntryPoint.setExceptionTranslator(frameWebResponseExceptionTranslator);
+        oauthServer.authenticationEntryPoint(authenticationEntryPoint)
+                .allowFormAuthenticationForClients()
                 .tokenKeyAccess("isAuthenticated()")
                 .passwordEncoder(passwordEncoder)
                 .checkTokenAccess("permitAll()");
@@ -119,10 +246,24 @@ public class AuthenticationServerConfig extends AuthorizationServerConfigurerAda
     }
 
 
+    /**
+     * 与网关共用的吊销列表，本实例吊销的token通过本地事件立即生效
+     * @return
+     */
+    @Bean
+    public TokenRevocationList tokenRevocationList() {
+        return new TokenRevocationList(redisTemplate);
+    }
+
+    /**
+     * 资源服务和内省接口使用，缓存已校验的token，已吊销的jti直接拒绝
+     * @return
+     */
     @Bean
     @Primary
     public DefaultTokenServices tokenServices() {
-        DefaultTokenServices defaultTokenServices = new DefaultTokenServices();
+        CachingTokenServices defaultTokenServices = new CachingTokenServices(tokenCacheMaximumSize, tokenCacheExpireSeconds);
+        defaultTokenServices.setRevoked(tokenRevocationList()::isRevoked);
         defaultTokenServices.setTokenStore(tokenStore());
         defaultTokenServices.setSupportRefreshToken(true);
         return defaultTokenServices;
@@ -135,8 +276,14 @@ public class AuthenticationServerConfig extends AuthorizationServerConfigurerAda
      */
     @Override
     public void configure(ClientDetailsServiceConfigurer clients) throws Exception {
-        JdbcClientDetailsService clientDetailsService = new JdbcClientDetailsService(dataSource);
-        clients.withClientDetails(clientDetailsService);
+        clients.withClientDetails(cachingClientDetailsService());
+    }
+
+    @Bean
+    public CachingClientDetailsService cachingClientDetailsService() {
+        return new CachingClientDetailsService(new JdbcClientDetailsService(dataSource),
+                clientCacheMaximumSize, clientCacheExpireSeconds,
+                missingClientCacheMaximumSize, missingClientCacheExpireSeconds);
     }
 
 }
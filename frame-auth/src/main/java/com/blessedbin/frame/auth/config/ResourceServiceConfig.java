@@ -32,6 +32,7 @@ public class ResourceServiceConfig extends ResourceServerConfigurerAdapter {
     public void configure(HttpSecurity http) throws Exception {
         http.authorizeRequests()
                 .antMatchers("/oauth/token_key","/oauth/token","/code/**").permitAll()
+                .antMatchers("/authentication/tokens/revoke/**").authenticated()
                 .anyRequest().permitAll();
     }
 }
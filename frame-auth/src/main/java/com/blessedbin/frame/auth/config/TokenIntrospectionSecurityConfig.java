@@ -0,0 +1,76 @@
+package com.blessedbin.frame.auth.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.provider.ClientDetailsService;
+import org.springframework.security.oauth2.provider.client.ClientDetailsUserDetailsService;
+import org.springframework.security.oauth2.provider.error.OAuth2AuthenticationEntryPoint;
+import org.springframework.security.oauth2.provider.error.WebResponseExceptionTranslator;
+
+/**
+ * Created by xubin on 2018/12/5.
+ *
+ * token内省接口的安全配置。与/oauth/token相同，客户端使用HTTP Basic认证，
+ * 只有具有指定权限的客户端（受信任的资源服务）可以调用，避免任意调用方借此探测token并读取claims。
+ *
+ * @author 37075
+ * @date 2018/12/5
+ * @time 10:20
+ * @tool intellij idea
+ */
+@Configuration
+@Order(1)
+public class TokenIntrospectionSecurityConfig extends WebSecurityConfigurerAdapter {
+
+    private static final String INTROSPECTION_PATH = "/token/introspect/**";
+
+    /**
+     * 与授权服务器的客户端认证使用同一个ClientDetailsService
+     */
+    @Autowired
+    private ClientDetailsService clientDetailsService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private WebResponseExceptionTranslator frameWebResponseExceptionTranslator;
+
+    /**
+     * 调用内省接口的客户端需要具有的权限，对应oauth_client_details.authorities
+     */
+    @Value("${frame.auth.introspection.authority:ROLE_TRUSTED_CLIENT}")
+    private String authority;
+
+    @Override
+    protected void configure(AuthenticationManagerBuilder auth) throws Exception {
+        auth.userDetailsService(new ClientDetailsUserDetailsService(clientDetailsService))
+                .passwordEncoder(passwordEncoder);
+    }
+
+    @Override
+    protected void configure(HttpSecurity http) throws Exception {
+        OAuth2AuthenticationEntryPoint authenticationEntryPoint = new OAuth2AuthenticationEntryPoint();
+        authenticationEntryPoint.setTypeName("Basic");
+        authenticationEntryPoint.setRealmName("oauth2/client");
+        authenticationEntryPoint.setExceptionTranslator(frameWebResponseExceptionTranslator);
+
+        http.antMatcher(INTROSPECTION_PATH)
+                .authorizeRequests().anyRequest().hasAuthority(authority)
+                .and()
+                .httpBasic().authenticationEntryPoint(authenticationEntryPoint)
+                .and()
+                .exceptionHandling().authenticationEntryPoint(authenticationEntryPoint)
+                .and()
+                .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                .and()
+                .csrf().disable();
+    }
+}
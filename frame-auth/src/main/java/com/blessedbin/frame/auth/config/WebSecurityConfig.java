@@ -1,12 +1,23 @@
 package com.blessedbin.frame.auth.config;
 
+import com.blessedbin.frame.auth.service.UserService;
+import com.blessedbin.frame.auth.support.BoundedPasswordEncoder;
+import com.blessedbin.frame.auth.support.CaptchaPool;
+import com.blessedbin.frame.auth.support.FrameAuthenticationProvider;
+import com.blessedbin.frame.auth.support.ClientIpResolver;
+import com.blessedbin.frame.auth.support.LoginAttemptLimiter;
+import com.blessedbin.frame.auth.support.PasswordUpgrader;
+import com.blessedbin.frame.auth.util.PasswordUtils;
 import com.google.code.kaptcha.impl.DefaultKaptcha;
 import com.google.code.kaptcha.util.Config;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -14,9 +25,10 @@ import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import javax.annotation.PostConstruct;
+import java.util.List;
 import java.util.Properties;
 
 /**
@@ -36,9 +48,101 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
     @Qualifier("userDetailServiceImpl")
     private UserDetailsService userDetailsService;
 
-    @Bean
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Value("${frame.auth.login-limit.window-seconds:300}")
+    private long loginLimitWindowSeconds;
+
+    @Value("${frame.auth.login-limit.max-per-username:5}")
+    private int loginLimitPerUsername;
+
+    @Value("${frame.auth.login-limit.max-per-ip:50}")
+    private int loginLimitPerIp;
+
+    /**
+     * 受信任的代理（网关）地址，只有来自这些地址的X-Forwarded-For才被采用；为空时信任回环和内网地址
+     */
+    @Value("${frame.auth.login-limit.trusted-proxies:}")
+    private List<String> trustedProxies;
+
+    /**
+     * 大于0时按当前硬件校准bcrypt强度，使单次校验耗时接近该值，否则使用bcrypt-strength
+     */
+    @Value("${frame.auth.password.target-millis:0}")
+    private long passwordTargetMillis;
+
+    @Value("${frame.auth.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    /**
+     * 小于等于0时使用CPU核数
+     */
+    @Value("${frame.auth.password.threads:0}")
+    private int passwordThreads;
+
+    @Value("${frame.auth.password.queue-capacity:64}")
+    private int passwordQueueCapacity;
+
+    @Value("${frame.auth.captcha.pool-size:512}")
+    private int captchaPoolSize;
+
+    /**
+     * 小于等于0时使用CPU核数
+     */
+    @Value("${frame.auth.captcha.workers:0}")
+    private int captchaWorkers;
+
+    @PostConstruct
+    public void calibrate() {
+        if (passwordTargetMillis > 0) {
+            bcryptStrength = PasswordUtils.calibrateBcryptStrength(passwordTargetMillis);
+        }
+    }
+
+    /**
+     * 密码哈希在独立的有界线程池中执行，不占用请求线程的CPU
+     */
+    @Bean(destroyMethod = "shutdown")
     public PasswordEncoder passwordEncoder(){
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        int threads = passwordThreads > 0 ? passwordThreads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(
+                PasswordUtils.createDelegatingPasswordEncoder(PasswordUtils.BCRYPT, bcryptStrength),
+                threads, passwordQueueCapacity, meterRegistry);
+    }
+
+    /**
+     * 登录成功后把过期的密码编码升级为当前强度的bcrypt
+     */
+    @Bean(destroyMethod = "shutdown")
+    public PasswordUpgrader passwordUpgrader() {
+        return new PasswordUpgrader(userService, passwordEncoder(), bcryptStrength);
+    }
+
+    /**
+     * 按用户名和IP限制窗口内的登录失败次数
+     */
+    @Bean
+    public LoginAttemptLimiter loginAttemptLimiter() {
+        return new LoginAttemptLimiter(redisTemplate, loginLimitPerUsername, loginLimitPerIp,
+                loginLimitWindowSeconds, meterRegistry);
+    }
+
+    @Bean
+    public FrameAuthenticationProvider frameAuthenticationProvider() {
+        FrameAuthenticationProvider provider = new FrameAuthenticationProvider();
+        provider.setUserDetailsService(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder());
+        provider.setPasswordUpgrader(passwordUpgrader());
+        provider.setLoginAttemptLimiter(loginAttemptLimiter());
+        provider.setClientIpResolver(new ClientIpResolver(trustedProxies));
+        return provider;
     }
 
     @Override
@@ -50,8 +154,7 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
 
     @Override
     protected void configure(AuthenticationManagerBuilder auth) throws Exception {
-        auth.userDetailsService(userDetailsService)
-                .passwordEncoder(passwordEncoder());
+        auth.authenticationProvider(frameAuthenticationProvider());
     }
 
     @Override
@@ -76,5 +179,10 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
         defaultKaptcha.setConfig(config);
         return defaultKaptcha;
     }
-}
 
+    @Bean(initMethod = "start", destroyMethod = "shutdown")
+    public CaptchaPool captchaPool() {
+        int workers = captchaWorkers > 0 ? captchaWorkers : Runtime.getRuntime().availableProcessors();
+        return new CaptchaPool(producer(), captchaPoolSize, workers);
+    }
+}
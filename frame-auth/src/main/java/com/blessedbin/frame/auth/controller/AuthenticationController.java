@@ -1,8 +1,10 @@
 package com.blessedbin.frame.auth.controller;
 
+import com.blessedbin.frame.auth.service.TokenRevocationService;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.common.OAuth2AccessToken;
-import org.springframework.security.oauth2.provider.token.ConsumerTokenServices;
 import org.springframework.security.oauth2.provider.token.TokenStore;
 import org.springframework.web.bind.annotation.*;
 
@@ -28,8 +30,8 @@ public class AuthenticationController {
     @Resource(name="tokenStore")
     private TokenStore tokenStore;
 
-    @Resource(name="tokenServices")
-    ConsumerTokenServices tokenServices;
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
 
     /**
      * For admin purposes, let’s also set up a way to view the currently valid tokens.
@@ -52,16 +54,15 @@ public class AuthenticationController {
 
 
     /**
-     * In order to invalidate a token, we’ll make use of the revokeToken()
-     * API from the ConsumerTokenServices interface:
-     * @param tokenId
-     * @return
+     * 吊销token，JwtTokenStore不保存token，ConsumerTokenServices.revokeToken对JWT无效，
+     * 因此记录jti并通知网关拒绝。需要登录，超级管理员或token所属用户才能吊销
+     * @param tokenId 完整的JWT
+     * @return 被吊销的jti
      */
     @RequestMapping(method = RequestMethod.POST, value = "/tokens/revoke/{tokenId:.*}")
     @ResponseBody
-    public String revokeToken(@PathVariable String tokenId) {
-        tokenServices.revokeToken(tokenId);
-        return tokenId;
+    public String revokeToken(@PathVariable String tokenId, Authentication authentication) {
+        return tokenRevocationService.revoke(tokenId, authentication);
     }
 
     @GetMapping("/user_info")
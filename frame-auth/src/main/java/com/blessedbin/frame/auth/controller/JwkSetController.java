@@ -0,0 +1,35 @@
+package com.blessedbin.frame.auth.controller;
+
+import com.blessedbin.frame.auth.support.JwtSigningKeys;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by xubin on 2018/11/27.
+ *
+ * 发布JWT签名公钥，资源服务缓存后在本地校验token，不需要每次请求认证中心
+ *
+ * @author 37075
+ * @date 2018/11/27
+ * @time 11:30
+ * @tool intellij idea
+ */
+@RestController
+public class JwkSetController {
+
+    @Autowired
+    private JwtSigningKeys signingKeys;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwkSet() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+                .body(signingKeys.toJwkSet());
+    }
+}
@@ -0,0 +1,97 @@
+package com.blessedbin.frame.auth.controller;
+
+import com.blessedbin.frame.common.exception.ParamCheckRuntimeException;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Created by xubin on 2018/11/26.
+ *
+ * token内省接口，供网关以外的资源服务校验token。
+ * 与/oauth/check_token返回相同的claims，另外带有active字段；校验结果由tokenServices缓存到token过期，
+ * 无效、过期或已吊销的token返回{"active": false}。
+ * 调用方需以HTTP Basic认证为受信任的客户端，见{@link com.blessedbin.frame.auth.config.TokenIntrospectionSecurityConfig}。
+ *
+ * @author 37075
+ * @date 2018/11/26
+ * @time 9:50
+ * @tool intellij idea
+ */
+@RestController
+@RequestMapping("/token")
+@Log4j2
+public class TokenIntrospectionController {
+
+    private static final String ACTIVE = "active";
+
+    private static final Map<String, Object> INACTIVE = Collections.singletonMap(ACTIVE, false);
+
+    @Autowired
+    private DefaultTokenServices tokenServices;
+
+    @Value("${frame.auth.introspection.max-items:100}")
+    private int maxItems;
+
+    /**
+     * 校验单个token，参数与/oauth/check_token一致，可直接配置给RemoteTokenServices
+     * @param token access token
+     * @return
+     */
+    @PostMapping("/introspect")
+    public Map<String, ?> introspect(@RequestParam("token") String token) {
+        return doIntrospect(token);
+    }
+
+    /**
+     * 批量校验token
+     * @param tokens access token列表
+     * @return 与tokens一一对应的结果
+     */
+    @PostMapping("/introspect/batch")
+    public List<Map<String, ?>> introspect(@RequestBody List<String> tokens) {
+        if (tokens.size() > maxItems) {
+            throw new ParamCheckRuntimeException("单次最多校验" + maxItems + "个token");
+        }
+        List<Map<String, ?>> result = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            result.add(doIntrospect(token));
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, ?> doIntrospect(String token) {
+        if (token == null || token.isEmpty()) {
+            return INACTIVE;
+        }
+        OAuth2Authentication authentication;
+        try {
+            authentication = tokenServices.loadAuthentication(token);
+        } catch (InvalidTokenException | AuthenticationException e) {
+            log.debug("token校验失败：{}", e.getMessage());
+            return INACTIVE;
+        }
+        if (!(authentication.getDetails() instanceof Map)) {
+            return INACTIVE;
+        }
+        Map<String, Object> claims = new LinkedHashMap<>((Map<String, ?>) authentication.getDetails());
+        claims.put(ACTIVE, true);
+        return claims;
+    }
+}
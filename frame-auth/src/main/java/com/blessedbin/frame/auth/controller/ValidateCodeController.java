@@ -2,16 +2,11 @@ package com.blessedbin.frame.auth.controller;
 
 import com.blessedbin.frame.common.SimpleResponse;
 import com.blessedbin.frame.auth.service.ValidateCodeService;
-import com.google.code.kaptcha.impl.DefaultKaptcha;
+import com.blessedbin.frame.auth.support.CaptchaPool;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.util.Base64Utils;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -28,31 +23,23 @@ import java.util.Map;
 public class ValidateCodeController {
 
     @Autowired
-    private DefaultKaptcha producer;
+    private CaptchaPool captchaPool;
 
     @Autowired
     private ValidateCodeService codeService;
 
 
     @RequestMapping("/captacha")
-    public SimpleResponse<Map<String, String>> captcha() throws IOException {
+    public SimpleResponse<Map<String, String>> captcha() {
 
-        // 生成文字验证码
-        String text = producer.createText();
-        // 生成图片验证码
-        BufferedImage image = producer.createImage(text);
-
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        ImageIO.write(image, "jpg", outputStream);
-
-        // 图片的Base64编码
-        String encoder = Base64Utils.encodeToString(outputStream.toByteArray());
+        // 取出预先渲染好的验证码
+        CaptchaPool.Captcha captcha = captchaPool.take();
 
         // 生成captcha的token
-        String token = codeService.createKaptcha(text);
+        String token = codeService.createKaptcha(captcha.getText());
 
         Map<String,String> data = new HashMap<>();
-        data.put("img","data:image/jpeg;base64," + encoder);
+        data.put("img",captcha.getImage());
         data.put("imgToken",token);
 
         return SimpleResponse.ok(data);
@@ -0,0 +1,117 @@
+package com.blessedbin.frame.auth.service;
+
+import com.blessedbin.frame.common.contant.SecurityConstants;
+import com.blessedbin.frame.common.event.TokenRevokedEvent;
+import com.blessedbin.frame.common.exception.ParamCheckRuntimeException;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.AccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Resource;
+import java.util.Objects;
+
+/**
+ * Created by xubin on 2018/11/23.
+ *
+ * JWT无法在服务端删除，吊销时把jti记录到Redis有序集合（score为过期时间）并广播，
+ * 网关和认证中心的{@link com.blessedbin.frame.common.security.TokenRevocationList}在token过期前拒绝该jti。
+ *
+ * @author 37075
+ * @date 2018/11/23
+ * @time 9:45
+ * @tool intellij idea
+ */
+@Service
+@Log4j2
+public class TokenRevocationService {
+
+    @Resource(name = "tokenStore")
+    private TokenStore tokenStore;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Value("${spring.cloud.bus.id:application}")
+    private String busId;
+
+    /**
+     * 吊销token，只接受签名有效且未过期的JWT；超级管理员可以吊销任意token，其他用户只能吊销自己的token
+     * @param tokenValue 完整的JWT
+     * @param caller 调用方
+     * @return 被吊销的jti
+     */
+    public String revoke(String tokenValue, Authentication caller) {
+        OAuth2AccessToken token = readAccessToken(tokenValue);
+        if (token == null || token.isExpired() || token.getExpiration() == null) {
+            throw new ParamCheckRuntimeException("token无效或已过期");
+        }
+        Object jti = token.getAdditionalInformation().get(AccessTokenConverter.JTI);
+        if (jti == null) {
+            throw new ParamCheckRuntimeException("token缺少jti");
+        }
+        if (!isAdmin(caller) && !isOwner(caller, tokenValue)) {
+            throw new AccessDeniedException("只能吊销自己的token");
+        }
+        revoke(jti.toString(), token.getExpiration().getTime());
+        return jti.toString();
+    }
+
+    public void revoke(String jti, long expiration) {
+        long now = System.currentTimeMillis();
+        if (expiration <= now) {
+            return;
+        }
+        // 写入的同时清理已过期的记录，集合大小只与有效期内的吊销数量有关
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            redis.zAdd(SecurityConstants.TOKEN_REVOKED_KEY, expiration, jti);
+            redis.zRemRangeByScore(SecurityConstants.TOKEN_REVOKED_KEY, 0, now);
+            return null;
+        });
+        log.info("token已吊销：{}", jti);
+        applicationEventPublisher.publishEvent(new TokenRevokedEvent(this, busId, jti, expiration));
+    }
+
+    private OAuth2AccessToken readAccessToken(String tokenValue) {
+        if (tokenValue == null || tokenValue.indexOf('.') < 0) {
+            return null;
+        }
+        try {
+            return tokenStore.readAccessToken(tokenValue);
+        } catch (InvalidTokenException | IllegalArgumentException e) {
+            log.debug("无法解析token：{}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean isAdmin(Authentication caller) {
+        return caller != null && caller.getAuthorities().stream()
+                .anyMatch(authority -> SecurityConstants.ROLE_ADMIN_KEY.equals(authority.getAuthority()));
+    }
+
+    /**
+     * 调用方和token都代表同一个用户，仅客户端身份的token不属于任何用户
+     */
+    private boolean isOwner(Authentication caller, String tokenValue) {
+        if (caller == null || (caller instanceof OAuth2Authentication && ((OAuth2Authentication) caller).isClientOnly())) {
+            return false;
+        }
+        OAuth2Authentication owner = tokenStore.readAuthentication(tokenValue);
+        return owner != null && !owner.isClientOnly() && Objects.equals(owner.getName(), caller.getName());
+    }
+}
@@ -3,20 +3,33 @@ package com.blessedbin.frame.auth.service;
 import com.blessedbin.frame.auth.support.FrameUserDetail;
 import com.blessedbin.frame.common.entity.FrameRole;
 import com.blessedbin.frame.common.entity.FrameUser;
+import com.blessedbin.frame.common.event.FrameCacheEvictEvent;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
  * Created by xubin on 2018/8/1.
  *
+ * 按用户名缓存用户中心返回的用户信息，用户、密码或角色变化后通过{@link FrameCacheEvictEvent}失效。
+ * 缓存的是{@link FrameUser}，每次登录重新创建{@link FrameUserDetail}，认证完成后擦除密码不会影响缓存。
+ *
  * @author 37075
  * @date 2018/8/1
  * @time 10:07
@@ -30,18 +43,39 @@ public class UserDetailServiceImpl implements UserDetailsService {
     @Autowired
     private UserService userService;
 
+    @Value("${frame.auth.user-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${frame.auth.user-cache.expire-seconds:300}")
+    private long expireSeconds;
 
+    /**
+     * 用户名 -> 用户信息
+     */
+    private Cache<String, FrameUser> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireSeconds, TimeUnit.SECONDS)
+                .build();
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         log.debug("select user by username:{}",username);
 
-        FrameUser user = userService.findByUsername(username);
+        FrameUser user = cache.getIfPresent(username);
         if(user == null){
-            throw new UsernameNotFoundException("没有这个用户:" + username);
+            user = userService.findByUsername(username);
+            if(user == null){
+                throw new UsernameNotFoundException("没有这个用户:" + username);
+            }
+            cache.put(username, user);
         }
 
-        List<FrameRole> roles = user.getRoleList();
+        List<FrameRole> roles = user.getRoleList() == null ? Collections.emptyList() : user.getRoleList();
 
         List<SimpleGrantedAuthority> grantedAuthorities = roles.stream()
                 .map(role -> new SimpleGrantedAuthority(role.getRoleKey())).collect(Collectors.toList());
@@ -57,4 +91,22 @@ public class UserDetailServiceImpl implements UserDetailsService {
                 user.getUuid()
         );
     }
+
+    /**
+     * 用户信息和用户角色的key都是uuid，按uuid查找缓存中的用户
+     */
+    @EventListener
+    public void onCacheEvict(FrameCacheEvictEvent event) {
+        if (event.getRegion() != FrameCacheEvictEvent.Region.USER
+                && event.getRegion() != FrameCacheEvictEvent.Region.USER_ROLE) {
+            return;
+        }
+        log.debug("收到缓存失效事件：{}", event);
+        if (event.isAll()) {
+            cache.invalidateAll();
+        } else {
+            Set<String> uuids = new HashSet<>(event.getKeys());
+            cache.asMap().values().removeIf(user -> uuids.contains(user.getUuid()));
+        }
+    }
 }
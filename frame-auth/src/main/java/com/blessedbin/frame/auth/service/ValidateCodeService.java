@@ -2,7 +2,7 @@ package com.blessedbin.frame.auth.service;
 
 import com.blessedbin.frame.common.contant.SecurityConstants;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
@@ -21,12 +21,12 @@ import java.util.concurrent.TimeUnit;
 public class ValidateCodeService {
 
     @Autowired
-    private RedisTemplate redisTemplate;
+    private StringRedisTemplate redisTemplate;
 
     public String createKaptcha(String text) {
         Assert.notNull(text,"验证码不能为空");
         String token = SecurityConstants.TOKEN_IMAGE_CODE_PREFIX + "-" +UUID.randomUUID().toString();
-        // 保存到Redis服务器
+        // 保存到Redis服务器，使用字符串序列化，网关通过Lua脚本校验
         redisTemplate.opsForValue().set(token,text,SecurityConstants.DEFAULT_IMAGE_CODE_TIMEOUT,TimeUnit.SECONDS);
         return token;
     }
@@ -0,0 +1,126 @@
+package com.blessedbin.frame.auth.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Created by xubin on 2018/11/20.
+ *
+ * 在独立的有界线程池中执行密码哈希，登录高峰时BCrypt最多占用固定数量的CPU，不会拖垮其他接口。
+ * 队列已满时立即抛出{@link PasswordEncoderBusyException}，由异常转换器返回503。
+ *
+ * @author 37075
+ * @date 2018/11/20
+ * @time 10:10
+ * @tool intellij idea
+ */
+@Log4j2
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Timer queueWait;
+
+    private final Timer encodeTime;
+
+    private final Timer matchesTime;
+
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, MeterRegistry registry) {
+        this.delegate = delegate;
+        BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, queue,
+                new WorkerThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        this.queueWait = Timer.builder("auth.password.queue.wait")
+                .description("密码哈希任务的排队时间")
+                .register(registry);
+        this.encodeTime = Timer.builder("auth.password.hash")
+                .tag("operation", "encode")
+                .description("密码哈希的执行时间")
+                .register(registry);
+        this.matchesTime = Timer.builder("auth.password.hash")
+                .tag("operation", "matches")
+                .description("密码哈希的执行时间")
+                .register(registry);
+        this.rejected = Counter.builder("auth.password.rejected")
+                .description("线程池已满被拒绝的次数")
+                .register(registry);
+        Gauge.builder("auth.password.queue.size", queue, BlockingQueue::size)
+                .description("等待执行的密码哈希任务数量")
+                .register(registry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(encodeTime, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(matchesTime, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T execute(Timer timer, Callable<T> task) {
+        long submitTime = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWait.record(System.nanoTime() - submitTime, TimeUnit.NANOSECONDS);
+                return timer.recordCallable(task);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordEncoderBusyException("登录人数过多，请稍后重试", e);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordEncoderBusyException("密码校验被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-encoder-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
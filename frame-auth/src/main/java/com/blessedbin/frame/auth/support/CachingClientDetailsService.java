@@ -0,0 +1,100 @@
+package com.blessedbin.frame.auth.support;
+
+import com.blessedbin.frame.common.event.FrameCacheEvictEvent;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.oauth2.provider.ClientDetails;
+import org.springframework.security.oauth2.provider.ClientDetailsService;
+import org.springframework.security.oauth2.provider.ClientRegistrationException;
+import org.springframework.security.oauth2.provider.NoSuchClientException;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by xubin on 2018/11/19.
+ *
+ * 带过期时间的客户端信息缓存。不存在的client_id单独记在容量小、有效期短的缓存中，
+ * 避免伪造的client_id反复查库，又不会挤掉正常客户端。用户中心变更客户端后收到
+ * {@link FrameCacheEvictEvent.Region#OAUTH_CLIENT}失效。
+ *
+ * @author 37075
+ * @date 2018/11/19
+ * @time 9:50
+ * @tool intellij idea
+ */
+@Log4j2
+public class CachingClientDetailsService implements ClientDetailsService {
+
+    private final ClientDetailsService delegate;
+
+    private final LoadingCache<String, ClientDetails> cache;
+
+    private final Cache<String, Boolean> missing;
+
+    public CachingClientDetailsService(ClientDetailsService delegate, long maximumSize, long expireSeconds,
+                                       long missingMaximumSize, long missingExpireSeconds) {
+        this.delegate = delegate;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireSeconds, TimeUnit.SECONDS)
+                .build(CacheLoader.from(this::load));
+        this.missing = CacheBuilder.newBuilder()
+                .maximumSize(missingMaximumSize)
+                .expireAfterWrite(missingExpireSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    @Override
+    public ClientDetails loadClientByClientId(String clientId) throws ClientRegistrationException {
+        if (missing.getIfPresent(clientId) != null) {
+            throw new NoSuchClientException("No client with requested id: " + clientId);
+        }
+        try {
+            return cache.getUnchecked(clientId);
+        } catch (UncheckedExecutionException e) {
+            if (e.getCause() instanceof NoSuchClientException) {
+                missing.put(clientId, Boolean.TRUE);
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 用户中心修改客户端后失效缓存
+     * @param event
+     */
+    @EventListener
+    public void onCacheEvict(FrameCacheEvictEvent event) {
+        if (event.getRegion() == FrameCacheEvictEvent.Region.OAUTH_CLIENT) {
+            invalidate(event.getKeys());
+        }
+    }
+
+    /**
+     * 失效指定的客户端
+     * @param clientIds 为空时失效全部
+     */
+    public void invalidate(Collection<String> clientIds) {
+        if (clientIds == null || clientIds.isEmpty()) {
+            cache.invalidateAll();
+            missing.invalidateAll();
+        } else {
+            cache.invalidateAll(clientIds);
+            missing.invalidateAll(clientIds);
+        }
+    }
+
+    private ClientDetails load(String clientId) {
+        log.debug("load client details:{}", clientId);
+        return delegate.loadClientByClientId(clientId);
+    }
+}
@@ -0,0 +1,203 @@
+package com.blessedbin.frame.auth.support;
+
+import com.google.code.kaptcha.Producer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.util.Base64Utils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Created by xubin on 2018/11/16.
+ *
+ * 预先渲染的验证码池。后台线程持续渲染验证码（生成文字、绘制图片、JPEG编码、Base64编码）填满队列，
+ * 请求线程只需取出一个；池为空时在请求线程上直接渲染，不会阻塞请求。
+ *
+ * @author 37075
+ * @date 2018/11/16
+ * @time 10:10
+ * @tool intellij idea
+ */
+@Log4j2
+public class CaptchaPool implements MeterBinder {
+
+    private static final long MIN_BACKOFF_MILLIS = 100;
+
+    private static final long MAX_BACKOFF_MILLIS = 60000;
+
+    private final Producer producer;
+
+    private final BlockingQueue<Captcha> queue;
+
+    private final int workers;
+
+    private final LongAdder generated = new LongAdder();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private ExecutorService executor;
+
+    public CaptchaPool(Producer producer, int capacity, int workers) {
+        this.producer = producer;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.workers = workers;
+    }
+
+    /**
+     * 启动后台渲染线程
+     */
+    public synchronized void start() {
+        if (executor != null || workers <= 0) {
+            return;
+        }
+        executor = Executors.newFixedThreadPool(workers, new WorkerThreadFactory());
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::fill);
+        }
+        log.info("验证码池已启动，容量：{}，渲染线程：{}", capacity(), workers);
+    }
+
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * 取出一个验证码，池为空时直接渲染
+     * @return
+     */
+    public Captcha take() {
+        Captcha captcha = poll();
+        return captcha != null ? captcha : render();
+    }
+
+    /**
+     * 只从池中取出，不渲染
+     * @return 池为空时返回null
+     */
+    public Captcha poll() {
+        Captcha captcha = queue.poll();
+        if (captcha == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return captcha;
+    }
+
+    /**
+     * 渲染一个验证码
+     * @return
+     */
+    public Captcha render() {
+        String text = producer.createText();
+        BufferedImage image = producer.createImage(text);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(2048);
+        try {
+            ImageIO.write(image, "jpg", outputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        generated.increment();
+        return new Captcha(text, "data:image/jpeg;base64," + Base64Utils.encodeToString(outputStream.toByteArray()));
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    public int capacity() {
+        return queue.size() + queue.remainingCapacity();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("auth.captcha.pool.size", queue, BlockingQueue::size)
+                .description("预先渲染的验证码数量")
+                .register(registry);
+        FunctionCounter.builder("auth.captcha.generated", generated, LongAdder::sum)
+                .description("已渲染的验证码数量")
+                .register(registry);
+        FunctionCounter.builder("auth.captcha.hits", hits, LongAdder::sum)
+                .description("从池中取出的次数")
+                .register(registry);
+        FunctionCounter.builder("auth.captcha.misses", misses, LongAdder::sum)
+                .description("池为空时在请求线程上渲染的次数")
+                .register(registry);
+    }
+
+    /**
+     * 渲染失败（如缺少字体）时按指数退避，直到上限，每次退避只记一次日志，避免空转和刷屏
+     */
+    private void fill() {
+        long backoff = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                queue.put(render());
+                backoff = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                backoff = backoff == 0 ? MIN_BACKOFF_MILLIS : Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+                if (backoff == MIN_BACKOFF_MILLIS) {
+                    log.warn("验证码渲染失败，{}ms后重试", backoff, e);
+                } else {
+                    log.warn("验证码渲染仍然失败，{}ms后重试：{}", backoff, e.toString());
+                }
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    @Getter
+    public static class Captcha {
+
+        private final String text;
+
+        /**
+         * data uri格式的图片
+         */
+        private final String image;
+
+        private Captcha(String text, String image) {
+            this.text = text;
+            this.image = image;
+        }
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "captcha-worker-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.blessedbin.frame.auth.support;
+
+import org.springframework.util.StringUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Created by xubin on 2018/12/3.
+ *
+ * 解析登录限流使用的客户端IP。X-Forwarded-For中靠前的地址由调用方填写，不可信；
+ * 只有请求来自受信任的代理（网关）时，才取代理追加的最后一个地址，否则使用连接的对端地址。
+ *
+ * @author 37075
+ * @date 2018/12/3
+ * @time 10:15
+ * @tool intellij idea
+ */
+public class ClientIpResolver {
+
+    private static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    private final Set<String> trustedProxies;
+
+    /**
+     * @param trustedProxies 受信任的代理地址，为空时信任回环和内网地址
+     */
+    public ClientIpResolver(Collection<String> trustedProxies) {
+        this.trustedProxies = new HashSet<>();
+        if (trustedProxies != null) {
+            trustedProxies.stream().filter(StringUtils::hasText).map(String::trim).forEach(this.trustedProxies::add);
+        }
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        String forwardedFor = request.getHeader(FORWARDED_FOR_HEADER);
+        if (!StringUtils.hasText(forwardedFor) || !isTrusted(remoteAddr)) {
+            return remoteAddr;
+        }
+        String last = forwardedFor.substring(forwardedFor.lastIndexOf(',') + 1).trim();
+        return last.isEmpty() ? remoteAddr : last;
+    }
+
+    private boolean isTrusted(String remoteAddr) {
+        if (remoteAddr == null) {
+            return false;
+        }
+        if (!trustedProxies.isEmpty()) {
+            return trustedProxies.contains(remoteAddr);
+        }
+        try {
+            // remoteAddr是IP字面量，不会触发DNS查询
+            InetAddress address = InetAddress.getByName(remoteAddr);
+            return address.isLoopbackAddress() || address.isSiteLocalAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+}
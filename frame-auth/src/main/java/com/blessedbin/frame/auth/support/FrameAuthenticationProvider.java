@@ -0,0 +1,83 @@
+package com.blessedbin.frame.auth.support;
+
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Collections;
+
+/**
+ * Created by xubin on 2018/11/21.
+ *
+ * 在查询用户和校验密码之前检查登录失败次数，认证成功后检查密码编码是否过期，
+ * 过期时交给{@link PasswordUpgrader}升级
+ *
+ * @author 37075
+ * @date 2018/11/21
+ * @time 10:40
+ * @tool intellij idea
+ */
+public class FrameAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private PasswordUpgrader passwordUpgrader;
+
+    private LoginAttemptLimiter loginAttemptLimiter;
+
+    private ClientIpResolver clientIpResolver = new ClientIpResolver(Collections.emptyList());
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String username = authentication.getName();
+        if (loginAttemptLimiter == null || StringUtils.isEmpty(username)) {
+            return super.authenticate(authentication);
+        }
+        String ip = getClientIp();
+        loginAttemptLimiter.check(username, ip);
+        try {
+            Authentication result = super.authenticate(authentication);
+            loginAttemptLimiter.reset(username);
+            return result;
+        } catch (BadCredentialsException e) {
+            loginAttemptLimiter.recordFailure(username, ip);
+            throw e;
+        }
+    }
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication,
+                                                         UserDetails user) {
+        if (passwordUpgrader != null && user instanceof FrameUserDetail
+                && authentication.getCredentials() != null
+                && passwordUpgrader.needsUpgrade(user.getPassword())) {
+            passwordUpgrader.upgrade(((FrameUserDetail) user).getUuid(), user.getPassword(),
+                    authentication.getCredentials().toString());
+        }
+        return super.createSuccessAuthentication(principal, authentication, user);
+    }
+
+    public void setPasswordUpgrader(PasswordUpgrader passwordUpgrader) {
+        this.passwordUpgrader = passwordUpgrader;
+    }
+
+    public void setLoginAttemptLimiter(LoginAttemptLimiter loginAttemptLimiter) {
+        this.loginAttemptLimiter = loginAttemptLimiter;
+    }
+
+    public void setClientIpResolver(ClientIpResolver clientIpResolver) {
+        this.clientIpResolver = clientIpResolver;
+    }
+
+    private String getClientIp() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return null;
+        }
+        return clientIpResolver.resolve(((ServletRequestAttributes) attributes).getRequest());
+    }
+}
@@ -42,6 +42,18 @@ public class FrameWebResponseExceptionTranslator implements WebResponseException
             return handleOAuth2Exception((OAuth2Exception) ase);
         }
 
+        ase = (PasswordEncoderBusyException) throwableAnalyzer.getFirstThrowableOfType(
+                PasswordEncoderBusyException.class, causeChain);
+        if (ase != null) {
+            return handleOAuth2Exception(new TemporarilyUnavailableException(ase.getMessage(), ase));
+        }
+
+        ase = (LoginThrottledException) throwableAnalyzer.getFirstThrowableOfType(
+                LoginThrottledException.class, causeChain);
+        if (ase != null) {
+            return handleOAuth2Exception(new TooManyRequestsException(ase.getMessage(), ase));
+        }
+
         ase = (AuthenticationException) throwableAnalyzer.getFirstThrowableOfType(AuthenticationException.class,
                 causeChain);
         if (ase != null) {
@@ -146,6 +158,44 @@ public class FrameWebResponseExceptionTranslator implements WebResponseException
 
     }
 
+    @SuppressWarnings("serial")
+    private static class TemporarilyUnavailableException extends OAuth2Exception {
+
+        public TemporarilyUnavailableException(String msg, Throwable t) {
+            super(msg, t);
+        }
+
+        @Override
+        public String getOAuth2ErrorCode() {
+            return "temporarily_unavailable";
+        }
+
+        @Override
+        public int getHttpErrorCode() {
+            return 503;
+        }
+
+    }
+
+    @SuppressWarnings("serial")
+    private static class TooManyRequestsException extends OAuth2Exception {
+
+        public TooManyRequestsException(String msg, Throwable t) {
+            super(msg, t);
+        }
+
+        @Override
+        public String getOAuth2ErrorCode() {
+            return "too_many_requests";
+        }
+
+        @Override
+        public int getHttpErrorCode() {
+            return 429;
+        }
+
+    }
+
     @SuppressWarnings("serial")
     private static class MethodNotAllowed extends OAuth2Exception {
 
@@ -0,0 +1,72 @@
+package com.blessedbin.frame.auth.support;
+
+import com.blessedbin.frame.common.security.RsaJwk;
+import org.springframework.security.jwt.crypto.sign.RsaVerifier;
+import org.springframework.security.jwt.crypto.sign.SignatureVerifier;
+
+import java.security.KeyPair;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Created by xubin on 2018/11/27.
+ *
+ * JWT签名密钥：当前用于签名的密钥对，以及轮换后仍需发布公钥的旧密钥，
+ * 旧密钥签发的token过期前，资源服务仍可通过JWK集合校验
+ *
+ * @author 37075
+ * @date 2018/11/27
+ * @time 10:40
+ * @tool intellij idea
+ */
+public class JwtSigningKeys {
+
+    private final String keyId;
+
+    private final KeyPair keyPair;
+
+    private final Map<String, RSAPublicKey> retired;
+
+    /**
+     * kid -> 校验器，包含当前密钥和旧密钥
+     */
+    private final Map<String, SignatureVerifier> verifiers = new LinkedHashMap<>();
+
+    public JwtSigningKeys(KeyPair keyPair, String keyId, Map<String, RSAPublicKey> retired) {
+        this.keyPair = keyPair;
+        this.keyId = keyId != null ? keyId : RsaJwk.thumbprint((RSAPublicKey) keyPair.getPublic());
+        this.retired = retired == null ? Collections.emptyMap() : new LinkedHashMap<>(retired);
+        this.verifiers.put(this.keyId, new RsaVerifier((RSAPublicKey) keyPair.getPublic()));
+        this.retired.forEach((kid, publicKey) -> verifiers.putIfAbsent(kid, new RsaVerifier(publicKey)));
+    }
+
+    public String getKeyId() {
+        return keyId;
+    }
+
+    public KeyPair getKeyPair() {
+        return keyPair;
+    }
+
+    /**
+     * @param keyId JWT头部的kid
+     * @return 对应的校验器，未知的kid返回null
+     */
+    public SignatureVerifier getVerifier(String keyId) {
+        return verifiers.get(keyId);
+    }
+
+    /**
+     * @return 当前密钥和旧密钥的JWK集合
+     */
+    public Map<String, Object> toJwkSet() {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        keys.add(RsaJwk.toJwk(keyId, (RSAPublicKey) keyPair.getPublic()));
+        retired.forEach((kid, publicKey) -> keys.add(RsaJwk.toJwk(kid, publicKey)));
+        return Collections.singletonMap(RsaJwk.KEYS, keys);
+    }
+}
@@ -0,0 +1,62 @@
+package com.blessedbin.frame.auth.support;
+
+import com.blessedbin.frame.common.security.JwkVerifyingAccessTokenConverter;
+import com.blessedbin.frame.common.security.RsaJwk;
+import org.springframework.security.jwt.crypto.sign.RsaSigner;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.util.JsonParser;
+import org.springframework.security.oauth2.common.util.JsonParserFactory;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+
+import java.nio.charset.StandardCharsets;
+import java.security.interfaces.RSAPrivateKey;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Created by xubin on 2018/11/27.
+ *
+ * 使用RSA私钥签名，并在JWT头部写入kid，资源服务按kid从JWK集合中选取公钥校验。
+ * 本地解析token（刷新token、内省）同样按kid选取当前或已轮换的公钥
+ *
+ * @author 37075
+ * @date 2018/11/27
+ * @time 11:05
+ * @tool intellij idea
+ */
+public class KeyIdJwtAccessTokenConverter extends JwkVerifyingAccessTokenConverter {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final JsonParser jsonParser = JsonParserFactory.create();
+
+    private final RsaSigner signer;
+
+    private final String header;
+
+    public KeyIdJwtAccessTokenConverter(JwtSigningKeys signingKeys) {
+        super(signingKeys::getVerifier);
+        // 只用于/oauth/token_key发布当前公钥，签名和校验都不使用父类的密钥
+        setKeyPair(signingKeys.getKeyPair());
+        this.signer = new RsaSigner((RSAPrivateKey) signingKeys.getKeyPair().getPrivate());
+        Map<String, Object> headers = new LinkedHashMap<>();
+        headers.put("alg", RsaJwk.ALGORITHM);
+        headers.put("typ", "JWT");
+        headers.put(RsaJwk.KEY_ID, signingKeys.getKeyId());
+        this.header = ENCODER.encodeToString(jsonParser.formatMap(headers).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    protected String encode(OAuth2AccessToken accessToken, OAuth2Authentication authentication) {
+        String content;
+        try {
+            content = jsonParser.formatMap(getAccessTokenConverter().convertAccessToken(accessToken, authentication));
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot convert access token to JSON", e);
+        }
+        String signingInput = header + "." + ENCODER.encodeToString(content.getBytes(StandardCharsets.UTF_8));
+        byte[] signature = signer.sign(signingInput.getBytes(StandardCharsets.UTF_8));
+        return signingInput + "." + ENCODER.encodeToString(signature);
+    }
+}
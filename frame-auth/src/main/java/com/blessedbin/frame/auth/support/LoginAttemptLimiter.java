@@ -0,0 +1,132 @@
+package com.blessedbin.frame.auth.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Created by xubin on 2018/11/22.
+ *
+ * 按用户名和IP统计登录失败次数的滑动窗口，每个维度是一个Redis有序集合，score为失败时间。
+ * 检查和记录各只需一次管道往返；Redis不可用时放行，不影响正常登录。
+ *
+ * @author 37075
+ * @date 2018/11/22
+ * @time 9:20
+ * @tool intellij idea
+ */
+@Log4j2
+public class LoginAttemptLimiter {
+
+    private static final String USERNAME_KEY_PREFIX = "login-failure:username:";
+
+    private static final String IP_KEY_PREFIX = "login-failure:ip:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final int maxPerUsername;
+
+    private final int maxPerIp;
+
+    private final long windowMillis;
+
+    private final Counter throttled;
+
+    private final Counter failures;
+
+    public LoginAttemptLimiter(StringRedisTemplate redisTemplate, int maxPerUsername, int maxPerIp,
+                               long windowSeconds, MeterRegistry registry) {
+        this.redisTemplate = redisTemplate;
+        this.maxPerUsername = maxPerUsername;
+        this.maxPerIp = maxPerIp;
+        this.windowMillis = windowSeconds * 1000;
+        this.throttled = Counter.builder("auth.login.throttled")
+                .description("被限流拒绝的登录次数，即省下的密码校验次数")
+                .register(registry);
+        this.failures = Counter.builder("auth.login.failures")
+                .description("密码错误的登录次数")
+                .register(registry);
+    }
+
+    /**
+     * 窗口内失败次数超过限制时抛出{@link LoginThrottledException}
+     * @param username 用户名
+     * @param ip 客户端IP，可以为空
+     */
+    public void check(String username, String ip) {
+        String usernameKey = USERNAME_KEY_PREFIX + username;
+        String ipKey = ip == null ? null : IP_KEY_PREFIX + ip;
+        double windowStart = System.currentTimeMillis() - windowMillis;
+        List<Object> results;
+        try {
+            results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                redis.zRemRangeByScore(usernameKey, 0, windowStart);
+                redis.zCard(usernameKey);
+                if (ipKey != null) {
+                    redis.zRemRangeByScore(ipKey, 0, windowStart);
+                    redis.zCard(ipKey);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("查询登录失败次数失败，放行本次登录：{}", e.getMessage());
+            return;
+        }
+        // 管道结果依次为：用户名的zRemRangeByScore、zCard，有IP时再加IP的zRemRangeByScore、zCard
+        long usernameFailures = count(results, 1);
+        long ipFailures = ipKey == null ? 0 : count(results, 3);
+        if (usernameFailures >= maxPerUsername || (ipKey != null && ipFailures >= maxPerIp)) {
+            throttled.increment();
+            throw new LoginThrottledException("登录失败次数过多，请稍后再试");
+        }
+    }
+
+    /**
+     * 记录一次密码错误
+     */
+    public void recordFailure(String username, String ip) {
+        failures.increment();
+        String usernameKey = USERNAME_KEY_PREFIX + username;
+        String ipKey = ip == null ? null : IP_KEY_PREFIX + ip;
+        long now = System.currentTimeMillis();
+        String member = now + ":" + UUID.randomUUID().toString();
+        long ttl = windowMillis / 1000 + 1;
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                redis.zAdd(usernameKey, now, member);
+                redis.expire(usernameKey, ttl);
+                if (ipKey != null) {
+                    redis.zAdd(ipKey, now, member);
+                    redis.expire(ipKey, ttl);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("记录登录失败次数失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 登录成功后清空该用户名的失败记录，IP维度保留
+     */
+    public void reset(String username) {
+        try {
+            redisTemplate.delete(USERNAME_KEY_PREFIX + username);
+        } catch (RuntimeException e) {
+            log.warn("清除登录失败次数失败：{}", e.getMessage());
+        }
+    }
+
+    private static long count(List<Object> results, int index) {
+        Object value = results.size() > index ? results.get(index) : null;
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+}
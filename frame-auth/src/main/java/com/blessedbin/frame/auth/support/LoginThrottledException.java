@@ -0,0 +1,20 @@
+package com.blessedbin.frame.auth.support;
+
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * Created by xubin on 2018/11/22.
+ *
+ * 登录失败次数超过限制，在查询用户和校验密码之前拒绝本次认证
+ *
+ * @author 37075
+ * @date 2018/11/22
+ * @time 9:40
+ * @tool intellij idea
+ */
+public class LoginThrottledException extends AuthenticationException {
+
+    public LoginThrottledException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,24 @@
+package com.blessedbin.frame.auth.support;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * Created by xubin on 2018/11/20.
+ *
+ * 密码校验线程池已满，拒绝本次认证
+ *
+ * @author 37075
+ * @date 2018/11/20
+ * @time 10:05
+ * @tool intellij idea
+ */
+public class PasswordEncoderBusyException extends AuthenticationServiceException {
+
+    public PasswordEncoderBusyException(String msg) {
+        super(msg);
+    }
+
+    public PasswordEncoderBusyException(String msg, Throwable t) {
+        super(msg, t);
+    }
+}
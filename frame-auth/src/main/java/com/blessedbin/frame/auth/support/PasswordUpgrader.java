@@ -0,0 +1,88 @@
+package com.blessedbin.frame.auth.support;
+
+import com.blessedbin.frame.auth.service.UserService;
+import com.blessedbin.frame.auth.util.PasswordUtils;
+import com.blessedbin.frame.common.entity.FramePasswordUpgrade;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by xubin on 2018/11/21.
+ *
+ * 登录成功后，如果保存的密码不是bcrypt编码或强度低于当前强度，用明文重新编码后写回用户中心。
+ * 升级在后台单线程中执行，不增加登录耗时；队列已满时直接放弃，下次登录再升级。
+ *
+ * @author 37075
+ * @date 2018/11/21
+ * @time 10:15
+ * @tool intellij idea
+ */
+@Log4j2
+public class PasswordUpgrader {
+
+    private final UserService userService;
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final int bcryptStrength;
+
+    private final ThreadPoolExecutor executor;
+
+    public PasswordUpgrader(UserService userService, PasswordEncoder passwordEncoder, int bcryptStrength) {
+        this.userService = userService;
+        this.passwordEncoder = passwordEncoder;
+        this.bcryptStrength = bcryptStrength;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(100),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-upgrader");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * @param encodedPassword 当前保存的密码
+     * @return 是否需要升级
+     */
+    public boolean needsUpgrade(String encodedPassword) {
+        return PasswordUtils.needsUpgrade(encodedPassword, bcryptStrength);
+    }
+
+    /**
+     * 异步升级密码
+     * @param uuid 用户ID
+     * @param encodedPassword 当前保存的密码
+     * @param rawPassword 登录时提交的明文密码
+     */
+    public void upgrade(String uuid, String encodedPassword, String rawPassword) {
+        try {
+            executor.execute(() -> doUpgrade(uuid, encodedPassword, rawPassword));
+        } catch (RejectedExecutionException e) {
+            log.debug("密码升级队列已满，跳过：{}", uuid);
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void doUpgrade(String uuid, String encodedPassword, String rawPassword) {
+        try {
+            FramePasswordUpgrade upgrade = FramePasswordUpgrade.builder()
+                    .uuid(uuid)
+                    .oldPassword(encodedPassword)
+                    .newPassword(passwordEncoder.encode(rawPassword))
+                    .build();
+            if (userService.upgradePassword(upgrade)) {
+                log.info("用户密码编码已升级：{}", uuid);
+            }
+        } catch (RuntimeException e) {
+            log.warn("用户密码编码升级失败：{}，{}", uuid, e.getMessage());
+        }
+    }
+}
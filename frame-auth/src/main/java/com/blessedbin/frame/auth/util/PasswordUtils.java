@@ -1,11 +1,14 @@
 package com.blessedbin.frame.auth.util;
 
+import lombok.extern.log4j.Log4j2;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.*;
 import org.springframework.security.crypto.scrypt.SCryptPasswordEncoder;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Created by xubin on 2018/8/2.
@@ -15,16 +18,41 @@ import java.util.Map;
  * @time 16:53
  * @tool intellij idea
  */
+@Log4j2
 public class PasswordUtils {
 
+    public static final String BCRYPT = "bcrypt";
+
+    /**
+     * 校准结果的下限，与BCryptPasswordEncoder的默认值一致，硬件再慢也不低于该强度
+     */
+    public static final int MIN_BCRYPT_STRENGTH = 10;
+
+    public static final int MAX_BCRYPT_STRENGTH = 16;
+
+    private static final int PROBE_STRENGTH = 8;
+
+    private static final String BCRYPT_PREFIX = "{" + BCRYPT + "}";
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d\\d)\\$");
+
     public static PasswordEncoder createDelegatingPasswordEncoder() {
-        return createDelegatingPasswordEncoder("bcrypt");
+        return createDelegatingPasswordEncoder(BCRYPT);
     }
 
-    @SuppressWarnings("unchecked")
     public static PasswordEncoder createDelegatingPasswordEncoder(String encodingId) {
+        return createDelegatingPasswordEncoder(encodingId, MIN_BCRYPT_STRENGTH);
+    }
+
+    /**
+     * @param encodingId 新密码使用的编码
+     * @param bcryptStrength bcrypt的强度
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static PasswordEncoder createDelegatingPasswordEncoder(String encodingId, int bcryptStrength) {
         Map<String, PasswordEncoder> encoders = new HashMap<>();
-        encoders.put(encodingId, new BCryptPasswordEncoder());
+        encoders.put(BCRYPT, new BCryptPasswordEncoder(bcryptStrength));
         encoders.put("ldap", new LdapShaPasswordEncoder());
         encoders.put("MD4", new Md4PasswordEncoder());
         encoders.put("MD5", new MessageDigestPasswordEncoder("MD5"));
@@ -42,4 +70,51 @@ public class PasswordUtils {
         return createDelegatingPasswordEncoder("noop");
     }
 
+    /**
+     * 按当前硬件校准bcrypt强度，使一次校验的耗时不超过目标值。
+     * 强度每加1耗时翻倍，因此只需在较低强度下测量一次再推算。
+     * @param targetMillis 一次校验的目标耗时
+     * @return 介于{@link #MIN_BCRYPT_STRENGTH}和{@link #MAX_BCRYPT_STRENGTH}之间的强度
+     */
+    public static int calibrateBcryptStrength(long targetMillis) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(PROBE_STRENGTH);
+        String hash = probe.encode("calibration");
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            probe.matches("calibration", hash);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        int strength = PROBE_STRENGTH;
+        double millis = best / 1_000_000.0;
+        while (strength < MAX_BCRYPT_STRENGTH && millis * 2 <= targetMillis) {
+            strength++;
+            millis *= 2;
+        }
+        if (strength < MIN_BCRYPT_STRENGTH) {
+            log.warn("目标耗时{}ms过低，bcrypt强度使用下限{}", targetMillis, MIN_BCRYPT_STRENGTH);
+            return MIN_BCRYPT_STRENGTH;
+        }
+        log.info("bcrypt强度校准为{}，预计单次校验{}ms", strength, Math.round(millis));
+        return strength;
+    }
+
+    /**
+     * 判断已保存的密码是否需要升级：不是bcrypt编码，或bcrypt强度低于当前强度
+     * @param encodedPassword 带编码前缀的密码
+     * @param bcryptStrength 当前的bcrypt强度
+     * @return
+     */
+    public static boolean needsUpgrade(String encodedPassword, int bcryptStrength) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        if (!encodedPassword.startsWith(BCRYPT_PREFIX)) {
+            return true;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword.substring(BCRYPT_PREFIX.length()));
+        return !matcher.find() || Integer.parseInt(matcher.group(1)) < bcryptStrength;
+    }
+
 }
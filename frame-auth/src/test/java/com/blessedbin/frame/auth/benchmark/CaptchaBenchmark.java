@@ -0,0 +1,181 @@
+package com.blessedbin.frame.auth.benchmark;
+
+import com.blessedbin.frame.auth.support.CaptchaPool;
+import com.google.code.kaptcha.impl.DefaultKaptcha;
+import com.google.code.kaptcha.util.Config;
+import com.google.common.util.concurrent.RateLimiter;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by xubin on 2018/11/16.
+ *
+ * 对比验证码接口的吞吐：inline为每次请求在请求线程上渲染；pooled为突发请求，每轮迭代前把池填满；
+ * sustained按固定速率请求，衡量后台线程的补充速度能否跟上。pooled和sustained同时输出hits/misses，
+ * misses为池为空、在请求线程上渲染的次数，吞吐需结合命中情况解读。
+ * 运行：执行main方法，或 java -cp target/test-classes:&lt;依赖&gt; org.openjdk.jmh.Main CaptchaBenchmark
+ *
+ * @author 37075
+ * @date 2018/11/16
+ * @time 14:40
+ * @tool intellij idea
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class CaptchaBenchmark {
+
+    private CaptchaPool inline;
+
+    private CaptchaPool pooled;
+
+    @Setup
+    public void setUp() {
+        inline = new CaptchaPool(producer(), 1, 0);
+        pooled = new CaptchaPool(producer(), 512, Runtime.getRuntime().availableProcessors());
+        pooled.start();
+    }
+
+    /**
+     * 每轮迭代（包括预热）都从满池开始，避免第一轮预热取空后后续结果只反映inline
+     */
+    @Setup(Level.Iteration)
+    public void refill() throws InterruptedException {
+        awaitFull(pooled);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pooled.shutdown();
+    }
+
+    @Benchmark
+    public CaptchaPool.Captcha inline() {
+        return inline.render();
+    }
+
+    @Benchmark
+    public CaptchaPool.Captcha pooled(PoolCounters counters) {
+        return take(pooled, counters);
+    }
+
+    /**
+     * 限速请求，吞吐即请求速率；misses为0说明后台线程的补充速度跟得上该速率
+     */
+    @Benchmark
+    @Measurement(iterations = 5, time = 10)
+    public CaptchaPool.Captcha sustained(SustainedLoad load, PoolCounters counters) {
+        load.limiter.acquire();
+        return take(load.pool, counters);
+    }
+
+    private static CaptchaPool.Captcha take(CaptchaPool pool, PoolCounters counters) {
+        CaptchaPool.Captcha captcha = pool.poll();
+        if (captcha != null) {
+            counters.hits++;
+            return captcha;
+        }
+        counters.misses++;
+        return pool.render();
+    }
+
+    private static void awaitFull(CaptchaPool pool) throws InterruptedException {
+        while (pool.size() < pool.capacity()) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    /**
+     * 所有请求线程共享的限速和验证码池，池只在开始时填满一次
+     */
+    @State(Scope.Benchmark)
+    public static class SustainedLoad {
+
+        /**
+         * 每秒请求数
+         */
+        @Param({"200", "1000", "5000"})
+        public int rate;
+
+        private CaptchaPool pool;
+
+        private RateLimiter limiter;
+
+        @Setup
+        public void setUp() throws InterruptedException {
+            pool = new CaptchaPool(producer(), 512, Runtime.getRuntime().availableProcessors());
+            pool.start();
+            awaitFull(pool);
+            limiter = RateLimiter.create(rate);
+        }
+
+        @TearDown
+        public void tearDown() {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 池命中和未命中的次数，随吞吐一起输出
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PoolCounters {
+
+        public long hits;
+
+        public long misses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    /**
+     * 与WebSecurityConfig中的配置一致
+     */
+    private static DefaultKaptcha producer() {
+        Properties properties = new Properties();
+        properties.put("kaptcha.border", "no");
+        properties.put("kaptcha.textproducer.font.color", "black");
+        properties.put("kaptcha.textproducer.char.space", "10");
+        properties.put("kaptcha.textproducer.char.length", "4");
+        properties.put("kaptcha.image.height", "34");
+        properties.put("kaptcha.textproducer.font.size", "25");
+        properties.put("kaptcha.noise.impl", "com.google.code.kaptcha.impl.NoNoise");
+        DefaultKaptcha producer = new DefaultKaptcha();
+        producer.setConfig(new Config(properties));
+        return producer;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CaptchaBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,132 @@
+package com.blessedbin.frame.auth.config;
+
+import com.blessedbin.frame.auth.controller.TokenIntrospectionController;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.ClientDetailsService;
+import org.springframework.security.oauth2.provider.client.BaseClientDetails;
+import org.springframework.security.oauth2.provider.client.InMemoryClientDetailsService;
+import org.springframework.security.oauth2.provider.error.DefaultWebResponseExceptionTranslator;
+import org.springframework.security.oauth2.provider.error.WebResponseExceptionTranslator;
+import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Created by xubin on 2018/12/5.
+ *
+ * @author 37075
+ * @date 2018/12/5
+ * @time 11:00
+ * @tool intellij idea
+ */
+@RunWith(SpringRunner.class)
+@WebAppConfiguration
+@ContextConfiguration(classes = {TokenIntrospectionSecurityConfig.class, TokenIntrospectionSecurityConfigTest.Config.class})
+public class TokenIntrospectionSecurityConfigTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @Before
+    public void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+    }
+
+    @Test
+    public void anonymousRejected() throws Exception {
+        mockMvc.perform(post("/token/introspect").param("token", "a.b.c"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/token/introspect/batch").contentType("application/json").content("[\"a.b.c\"]"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void wrongSecretRejected() throws Exception {
+        mockMvc.perform(post("/token/introspect").param("token", "a.b.c").with(httpBasic("resource", "wrong")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void untrustedClientForbidden() throws Exception {
+        mockMvc.perform(post("/token/introspect").param("token", "a.b.c").with(httpBasic("web", "secret")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void trustedClientAllowed() throws Exception {
+        mockMvc.perform(post("/token/introspect").param("token", "a.b.c").with(httpBasic("resource", "secret")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.active").value(false));
+    }
+
+    @Configuration
+    @EnableWebSecurity
+    @EnableWebMvc
+    static class Config {
+
+        @Bean
+        public ClientDetailsService clientDetailsService() {
+            Map<String, BaseClientDetails> clients = new HashMap<>();
+            clients.put("resource", client("resource", "ROLE_TRUSTED_CLIENT"));
+            clients.put("web", client("web", "ROLE_CLIENT"));
+            InMemoryClientDetailsService clientDetailsService = new InMemoryClientDetailsService();
+            clientDetailsService.setClientDetailsStore(clients);
+            return clientDetailsService;
+        }
+
+        @Bean
+        public PasswordEncoder passwordEncoder() {
+            return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        }
+
+        @Bean
+        public WebResponseExceptionTranslator frameWebResponseExceptionTranslator() {
+            return new DefaultWebResponseExceptionTranslator();
+        }
+
+        @Bean
+        public DefaultTokenServices tokenServices() {
+            DefaultTokenServices tokenServices = Mockito.mock(DefaultTokenServices.class);
+            Mockito.when(tokenServices.loadAuthentication(Mockito.anyString()))
+                    .thenThrow(new InvalidTokenException("invalid"));
+            return tokenServices;
+        }
+
+        @Bean
+        public TokenIntrospectionController tokenIntrospectionController() {
+            return new TokenIntrospectionController();
+        }
+
+        private static BaseClientDetails client(String clientId, String authorities) {
+            BaseClientDetails client = new BaseClientDetails(clientId, null, "all", "client_credentials", authorities);
+            client.setClientSecret("{noop}secret");
+            return client;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.blessedbin.frame.auth.support;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Created by xubin on 2018/11/20.
+ *
+ * @author 37075
+ * @date 2018/11/20
+ * @time 14:30
+ * @tool intellij idea
+ */
+public class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+
+    private BoundedPasswordEncoder encoder;
+
+    @Before
+    public void setUp() {
+        encoder = new BoundedPasswordEncoder(new BlockingPasswordEncoder(), 1, 1, registry);
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        encoder.shutdown();
+    }
+
+    @Test
+    public void rejectWhenQueueIsFull() throws Exception {
+        // 第一个任务占用唯一的线程，第二个任务进入队列
+        Future<Boolean> running = callers.submit(() -> encoder.matches("a", "a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<Boolean> queued = callers.submit(() -> encoder.matches("b", "b"));
+        while (registry.get("auth.password.queue.size").gauge().value() < 1) {
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+
+        try {
+            encoder.matches("c", "c");
+            fail();
+        } catch (PasswordEncoderBusyException e) {
+            assertEquals(1.0, registry.get("auth.password.rejected").counter().count(), 0);
+        }
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+        assertEquals(2, registry.get("auth.password.hash").tag("operation", "matches").timer().count());
+    }
+
+    private class BlockingPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.blessedbin.frame.auth.support;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Created by xubin on 2018/12/3.
+ *
+ * @author 37075
+ * @date 2018/12/3
+ * @time 11:00
+ * @tool intellij idea
+ */
+public class FrameAuthenticationProviderTest {
+
+    private static final int MAX_PER_IP = 3;
+
+    private final InMemoryRedisTemplate redis = new InMemoryRedisTemplate();
+
+    private final LoginAttemptLimiter limiter = new LoginAttemptLimiter(redis, Integer.MAX_VALUE, MAX_PER_IP, 300,
+            new SimpleMeterRegistry());
+
+    private final FrameAuthenticationProvider provider = new FrameAuthenticationProvider();
+
+    @Before
+    public void setUp() {
+        provider.setUserDetailsService(username -> {
+            throw new UsernameNotFoundException(username);
+        });
+        provider.setLoginAttemptLimiter(limiter);
+        provider.setClientIpResolver(new ClientIpResolver(Collections.emptyList()));
+    }
+
+    @After
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void spoofedForwardedForDoesNotResetIpCounter() {
+        for (int i = 0; i < MAX_PER_IP; i++) {
+            login("user" + i, "198.51.100." + i + ", 203.0.113.7");
+        }
+        assertEquals(MAX_PER_IP, redis.zCard("login-failure:ip:203.0.113.7"));
+
+        try {
+            login("another", "198.51.100.99, 203.0.113.7");
+            fail();
+        } catch (LoginThrottledException e) {
+            // 伪造的第一个地址不影响按网关追加的地址计数
+        }
+    }
+
+    @Test
+    public void forwardedForIgnoredFromUntrustedPeer() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("203.0.113.8");
+        request.addHeader("X-Forwarded-For", "10.0.0.1");
+
+        assertEquals("203.0.113.8", new ClientIpResolver(Collections.emptyList()).resolve(request));
+        assertEquals("203.0.113.8", new ClientIpResolver(Collections.singletonList("10.0.0.2")).resolve(request));
+    }
+
+    private void login(String username, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.2");
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            provider.authenticate(new UsernamePasswordAuthenticationToken(username, "wrong"));
+            fail();
+        } catch (BadCredentialsException e) {
+            // 用户不存在同样记为密码错误
+        }
+    }
+}
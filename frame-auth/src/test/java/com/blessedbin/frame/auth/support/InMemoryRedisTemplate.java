@@ -0,0 +1,97 @@
+package com.blessedbin.frame.auth.support;
+
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Created by xubin on 2018/12/5.
+ *
+ * 测试用的Redis替身，只实现{@link LoginAttemptLimiter}用到的有序集合命令。
+ * 管道中的命令按顺序执行并收集结果，与真实管道的返回值一致。
+ *
+ * @author 37075
+ * @date 2018/12/5
+ * @time 16:10
+ * @tool intellij idea
+ */
+class InMemoryRedisTemplate extends StringRedisTemplate {
+
+    /**
+     * key -> (member -> score)
+     */
+    private final Map<String, Map<String, Double>> sortedSets = new HashMap<>();
+
+    private volatile boolean unavailable;
+
+    void setUnavailable(boolean unavailable) {
+        this.unavailable = unavailable;
+    }
+
+    synchronized void zAdd(String key, double score, String member) {
+        sortedSets.computeIfAbsent(key, k -> new HashMap<>()).put(member, score);
+    }
+
+    synchronized long zCard(String key) {
+        Map<String, Double> set = sortedSets.get(key);
+        return set == null ? 0 : set.size();
+    }
+
+    @Override
+    public synchronized List<Object> executePipelined(RedisCallback<?> action) {
+        checkAvailable();
+        List<Object> results = new ArrayList<>();
+        StringRedisConnection connection = mock(StringRedisConnection.class, invocation -> {
+            results.add(apply(invocation.getMethod().getName(), invocation.getArguments()));
+            // 管道模式下命令本身返回null，结果由executePipelined统一返回
+            return null;
+        });
+        action.doInRedis(connection);
+        return results;
+    }
+
+    @Override
+    public synchronized Boolean delete(String key) {
+        checkAvailable();
+        return sortedSets.remove(key) != null;
+    }
+
+    private Object apply(String command, Object[] args) {
+        String key = (String) args[0];
+        switch (command) {
+            case "zAdd":
+                zAdd(key, (Double) args[1], (String) args[2]);
+                return true;
+            case "zCard":
+                return zCard(key);
+            case "zRemRangeByScore":
+                Map<String, Double> set = sortedSets.get(key);
+                if (set == null) {
+                    return 0L;
+                }
+                int before = set.size();
+                double min = (Double) args[1];
+                double max = (Double) args[2];
+                set.values().removeIf(score -> score >= min && score <= max);
+                return (long) (before - set.size());
+            case "expire":
+                return sortedSets.containsKey(key);
+            default:
+                throw new UnsupportedOperationException(command);
+        }
+    }
+
+    private void checkAvailable() {
+        if (unavailable) {
+            throw new RedisConnectionFailureException("redis unavailable");
+        }
+    }
+}
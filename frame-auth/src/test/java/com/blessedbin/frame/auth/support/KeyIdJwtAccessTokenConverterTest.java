@@ -0,0 +1,69 @@
+package com.blessedbin.frame.auth.support;
+
+import com.blessedbin.frame.common.security.RsaJwk;
+import org.junit.Test;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Created by xubin on 2018/12/3.
+ *
+ * @author 37075
+ * @date 2018/12/3
+ * @time 15:20
+ * @tool intellij idea
+ */
+public class KeyIdJwtAccessTokenConverterTest {
+
+    private final KeyPair oldKey = generate();
+
+    private final KeyPair newKey = generate();
+
+    @Test
+    public void retiredKeyStillVerifies() {
+        String token = sign(new JwtSigningKeys(oldKey, null, null));
+
+        RSAPublicKey oldPublic = (RSAPublicKey) oldKey.getPublic();
+        JwtSigningKeys rotated = new JwtSigningKeys(newKey, null,
+                Collections.singletonMap(RsaJwk.thumbprint(oldPublic), oldPublic));
+
+        assertNotNull(new JwtTokenStore(new KeyIdJwtAccessTokenConverter(rotated)).readAccessToken(token));
+    }
+
+    @Test(expected = InvalidTokenException.class)
+    public void unknownKeyRejected() {
+        String token = sign(new JwtSigningKeys(oldKey, null, null));
+
+        new JwtTokenStore(new KeyIdJwtAccessTokenConverter(new JwtSigningKeys(newKey, null, null))).readAccessToken(token);
+    }
+
+    private static String sign(JwtSigningKeys keys) {
+        OAuth2Request request = new OAuth2Request(Collections.emptyMap(), "client", Collections.emptyList(), true,
+                Collections.singleton("all"), null, null, null, null);
+        DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken(UUID.randomUUID().toString());
+        token.setExpiration(new Date(System.currentTimeMillis() + 60000));
+        return new KeyIdJwtAccessTokenConverter(keys).enhance(token, new OAuth2Authentication(request, null)).getValue();
+    }
+
+    private static KeyPair generate() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
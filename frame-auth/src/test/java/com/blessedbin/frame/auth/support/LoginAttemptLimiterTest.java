@@ -0,0 +1,98 @@
+package com.blessedbin.frame.auth.support;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Created by xubin on 2018/12/5.
+ *
+ * @author 37075
+ * @date 2018/12/5
+ * @time 16:40
+ * @tool intellij idea
+ */
+public class LoginAttemptLimiterTest {
+
+    private static final String USERNAME_KEY = "login-failure:username:";
+
+    private static final String IP_KEY = "login-failure:ip:";
+
+    private final InMemoryRedisTemplate redis = new InMemoryRedisTemplate();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    public void throttlesUsernameWithoutIp() {
+        LoginAttemptLimiter limiter = new LoginAttemptLimiter(redis, 3, 50, 300, registry);
+        for (int i = 0; i < 2; i++) {
+            limiter.recordFailure("admin", null);
+        }
+        limiter.check("admin", null);
+
+        limiter.recordFailure("admin", null);
+        assertThrottled(limiter, "admin", null);
+        assertEquals(1.0, registry.get("auth.login.throttled").counter().count(), 0);
+    }
+
+    @Test
+    public void throttlesIpAcrossUsernames() {
+        LoginAttemptLimiter limiter = new LoginAttemptLimiter(redis, 50, 3, 300, registry);
+        for (int i = 0; i < 3; i++) {
+            limiter.recordFailure("user" + i, "203.0.113.7");
+        }
+
+        assertThrottled(limiter, "another", "203.0.113.7");
+        limiter.check("another", "203.0.113.8");
+    }
+
+    @Test
+    public void failuresOutsideWindowAreTrimmed() {
+        LoginAttemptLimiter limiter = new LoginAttemptLimiter(redis, 3, 3, 300, registry);
+        double expired = System.currentTimeMillis() - 301 * 1000;
+        for (int i = 0; i < 5; i++) {
+            redis.zAdd(USERNAME_KEY + "admin", expired, "old-" + i);
+            redis.zAdd(IP_KEY + "203.0.113.7", expired, "old-" + i);
+        }
+
+        limiter.check("admin", "203.0.113.7");
+        assertEquals(0, redis.zCard(USERNAME_KEY + "admin"));
+        assertEquals(0, redis.zCard(IP_KEY + "203.0.113.7"));
+    }
+
+    @Test
+    public void resetKeepsIpFailures() {
+        LoginAttemptLimiter limiter = new LoginAttemptLimiter(redis, 3, 3, 300, registry);
+        for (int i = 0; i < 3; i++) {
+            limiter.recordFailure("admin", "203.0.113.7");
+        }
+
+        limiter.reset("admin");
+        assertEquals(0, redis.zCard(USERNAME_KEY + "admin"));
+        limiter.check("admin", "203.0.113.8");
+        assertThrottled(limiter, "admin", "203.0.113.7");
+    }
+
+    @Test
+    public void redisUnavailableFailsOpen() {
+        LoginAttemptLimiter limiter = new LoginAttemptLimiter(redis, 1, 1, 300, registry);
+        limiter.recordFailure("admin", "203.0.113.7");
+        redis.setUnavailable(true);
+
+        limiter.check("admin", "203.0.113.7");
+        limiter.recordFailure("admin", "203.0.113.7");
+        limiter.reset("admin");
+        assertEquals(2.0, registry.get("auth.login.failures").counter().count(), 0);
+    }
+
+    private static void assertThrottled(LoginAttemptLimiter limiter, String username, String ip) {
+        try {
+            limiter.check(username, ip);
+            fail();
+        } catch (LoginThrottledException e) {
+            // 窗口内失败次数已达上限
+        }
+    }
+}
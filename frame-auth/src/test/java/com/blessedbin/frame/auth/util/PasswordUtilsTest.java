@@ -0,0 +1,44 @@
+package com.blessedbin.frame.auth.util;
+
+import org.junit.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by xubin on 2018/11/21.
+ *
+ * @author 37075
+ * @date 2018/11/21
+ * @time 11:20
+ * @tool intellij idea
+ */
+public class PasswordUtilsTest {
+
+    @Test
+    public void needsUpgrade() {
+        PasswordEncoder weak = PasswordUtils.createDelegatingPasswordEncoder(PasswordUtils.BCRYPT, 10);
+        PasswordEncoder strong = PasswordUtils.createDelegatingPasswordEncoder(PasswordUtils.BCRYPT, 11);
+
+        assertTrue(PasswordUtils.needsUpgrade(PasswordUtils.noopPasswordEncoder().encode("123456"), 10));
+        assertTrue(PasswordUtils.needsUpgrade(weak.encode("123456"), 11));
+        assertFalse(PasswordUtils.needsUpgrade(weak.encode("123456"), 10));
+        assertFalse(PasswordUtils.needsUpgrade(strong.encode("123456"), 10));
+        assertFalse(PasswordUtils.needsUpgrade(null, 10));
+    }
+
+    @Test
+    public void upgradedPasswordStillMatches() {
+        PasswordEncoder encoder = PasswordUtils.createDelegatingPasswordEncoder(PasswordUtils.BCRYPT, 11);
+        String legacy = PasswordUtils.noopPasswordEncoder().encode("123456");
+        assertTrue(encoder.matches("123456", legacy));
+        assertTrue(encoder.matches("123456", encoder.encode("123456")));
+    }
+
+    @Test
+    public void calibrationIsBounded() {
+        int strength = PasswordUtils.calibrateBcryptStrength(1);
+        assertTrue(strength >= PasswordUtils.MIN_BCRYPT_STRENGTH && strength <= PasswordUtils.MAX_BCRYPT_STRENGTH);
+    }
+}
@@ -28,6 +28,11 @@ public interface SecurityConstants {
 
     String OAUTH_TOKEN_URL = "/api/oauth/token";
 
+    /**
+     * 已吊销token的有序集合，member为jti，score为token过期时间（毫秒）
+     */
+    String TOKEN_REVOKED_KEY = "token-revoked";
+
 
     /**
      * 超级管理员角色关键字
@@ -0,0 +1,46 @@
+package com.blessedbin.frame.common.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Created by xubin on 2018/11/28.
+ *
+ * 用户身份，只包含鉴权需要的字段，不含密码和角色详情，供其他服务频繁查询
+ *
+ * @author 37075
+ * @date 2018/11/28
+ * @time 9:20
+ * @tool intellij idea
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class FrameIdentity implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String uuid;
+
+    private String username;
+
+    private boolean enabled;
+
+    private boolean accountNonExpired;
+
+    private boolean accountNonLocked;
+
+    private boolean credentialsNonExpired;
+
+    /**
+     * 启用的角色关键字
+     */
+    private List<String> roleKeys;
+
+}
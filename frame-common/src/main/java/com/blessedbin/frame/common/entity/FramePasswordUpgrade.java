@@ -0,0 +1,38 @@
+package com.blessedbin.frame.common.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Created by xubin on 2018/11/21.
+ *
+ * 登录成功后升级密码的编码，只有当前保存的密码仍为oldPassword时才会更新
+ *
+ * @author 37075
+ * @date 2018/11/21
+ * @time 9:30
+ * @tool intellij idea
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@ToString(exclude = {"oldPassword", "newPassword"})
+public class FramePasswordUpgrade {
+
+    private String uuid;
+
+    /**
+     * 当前保存的密码
+     */
+    private String oldPassword;
+
+    /**
+     * 重新编码后的密码
+     */
+    private String newPassword;
+
+}
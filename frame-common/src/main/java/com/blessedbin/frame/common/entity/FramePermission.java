@@ -19,6 +19,11 @@ import lombok.NoArgsConstructor;
 @Builder
 public class FramePermission {
 
+    /**
+     * 权限ID
+     */
+    private Integer id;
+
     private String url;
 
     private String method;
@@ -0,0 +1,42 @@
+package com.blessedbin.frame.common.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Created by xubin on 2018/11/14.
+ *
+ * 完整的权限目录，供网关保存本地快照
+ *
+ * @author 37075
+ * @date 2018/11/14
+ * @time 9:20
+ * @tool intellij idea
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class FramePermissionSnapshot {
+
+    /**
+     * 全部API
+     */
+    private List<FramePermission> apis;
+
+    /**
+     * 角色关键字 -> 有效权限id
+     */
+    private Map<String, List<Integer>> roles;
+
+    /**
+     * 功能点编码 -> 权限id
+     */
+    private Map<String, Integer> operations;
+
+}
@@ -1,7 +1,9 @@
 package com.blessedbin.frame.common.entity;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 /**
  * Created by xubin on 2018/9/26.
@@ -12,6 +14,8 @@ import lombok.Data;
  * @tool intellij idea
  */
 @Data
+@AllArgsConstructor
+@NoArgsConstructor
 @Builder
 public class FrameRole {
 
@@ -1,7 +1,9 @@
 package com.blessedbin.frame.common.entity;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
 import java.util.List;
@@ -16,6 +18,8 @@ import java.util.Set;
  * @tool intellij idea
  */
 @Data
+@AllArgsConstructor
+@NoArgsConstructor
 @Builder
 public class FrameUser implements Serializable {
 
@@ -0,0 +1,84 @@
+package com.blessedbin.frame.common.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Created by xubin on 2018/11/6.
+ *
+ * 缓存失效事件，通过spring-cloud-bus广播到所有服务实例。
+ * 总线关闭时（spring.cloud.bus.enabled=false）事件只在本进程内投递，可直接用于单机和离线测试。
+ *
+ * @author 37075
+ * @date 2018/11/6
+ * @time 9:40
+ * @tool intellij idea
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString(callSuper = true)
+public class FrameCacheEvictEvent extends RemoteApplicationEvent {
+
+    /**
+     * 失效的缓存区域
+     */
+    private Region region;
+
+    /**
+     * 失效的key，为空时失效整个区域
+     */
+    private List<String> keys = new ArrayList<>();
+
+    public FrameCacheEvictEvent(Object source, String originService, Region region, Collection<String> keys) {
+        super(source, originService);
+        this.region = region;
+        if (keys != null) {
+            this.keys = new ArrayList<>(keys);
+        }
+    }
+
+    @JsonIgnore
+    public boolean isAll() {
+        return keys == null || keys.isEmpty();
+    }
+
+    public enum Region {
+        /**
+         * 用户信息（密码、状态等），key为用户uuid
+         */
+        USER,
+        /**
+         * 用户角色关系，key为用户uuid
+         */
+        USER_ROLE,
+        /**
+         * 角色权限关系，key为角色关键字
+         */
+        ROLE_PERMISSION,
+        /**
+         * API目录
+         */
+        API,
+        /**
+         * OAuth客户端，key为client_id
+         */
+        OAUTH_CLIENT,
+        /**
+         * 菜单目录
+         */
+        MENU,
+        /**
+         * 部门树
+         */
+        DEPARTMENT
+    }
+}
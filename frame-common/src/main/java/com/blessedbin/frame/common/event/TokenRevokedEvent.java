@@ -0,0 +1,40 @@
+package com.blessedbin.frame.common.event;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+/**
+ * Created by xubin on 2018/11/23.
+ *
+ * token吊销事件，通过spring-cloud-bus广播到所有网关
+ *
+ * @author 37075
+ * @date 2018/11/23
+ * @time 9:30
+ * @tool intellij idea
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString(callSuper = true)
+public class TokenRevokedEvent extends RemoteApplicationEvent {
+
+    /**
+     * JWT的jti
+     */
+    private String jti;
+
+    /**
+     * token的过期时间（毫秒），之后不再需要记录
+     */
+    private long expiration;
+
+    public TokenRevokedEvent(Object source, String originService, String jti, long expiration) {
+        super(source, originService);
+        this.jti = jti;
+        this.expiration = expiration;
+    }
+}
@@ -0,0 +1,77 @@
+package com.blessedbin.frame.common.security;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.AccessTokenConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by xubin on 2018/11/9.
+ *
+ * 认证结果在鉴权过程中会被修改details，缓存中只保存不变的部分，每次命中时重新组装
+ *
+ * @author 37075
+ * @date 2018/11/9
+ * @time 10:05
+ * @tool intellij idea
+ */
+final class CachedAuthentication {
+
+    private final OAuth2Request request;
+
+    private final Authentication userAuthentication;
+
+    private final Object details;
+
+    final String jti;
+
+    final long expiration;
+
+    CachedAuthentication(OAuth2Authentication authentication, String jti, long expiration) {
+        this.request = authentication.getOAuth2Request();
+        this.userAuthentication = authentication.getUserAuthentication();
+        this.details = authentication.getDetails();
+        this.jti = jti;
+        this.expiration = expiration;
+    }
+
+    OAuth2Authentication toAuthentication() {
+        OAuth2Authentication authentication = new OAuth2Authentication(request, userAuthentication);
+        authentication.setDetails(details);
+        return authentication;
+    }
+
+    /**
+     * 缓存以token的SHA-256为key，不在内存中保留原始token
+     */
+    static HashCode hash(String accessTokenValue) {
+        return Hashing.sha256().hashString(accessTokenValue, StandardCharsets.UTF_8);
+    }
+
+    static String jti(OAuth2Authentication authentication) {
+        Object details = authentication.getDetails();
+        if (details instanceof Map) {
+            Object jti = ((Map<?, ?>) details).get(AccessTokenConverter.JTI);
+            return jti == null ? null : jti.toString();
+        }
+        return null;
+    }
+
+    /**
+     * @return details中的exp（毫秒），details不是claims时返回-1
+     */
+    static long expiration(OAuth2Authentication authentication) {
+        Object details = authentication.getDetails();
+        if (details instanceof Map) {
+            Object exp = ((Map<?, ?>) details).get(AccessTokenConverter.EXP);
+            return exp instanceof Number ? TimeUnit.SECONDS.toMillis(((Number) exp).longValue()) : 0;
+        }
+        return -1;
+    }
+}
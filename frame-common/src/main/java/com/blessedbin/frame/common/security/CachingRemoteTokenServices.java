@@ -0,0 +1,90 @@
+package com.blessedbin.frame.common.security;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.DefaultAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.RemoteTokenServices;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by xubin on 2018/11/26.
+ *
+ * 供网关以外的资源服务使用的token校验，调用认证中心的内省接口，并把结果缓存到token过期（exp）为止，
+ * 同一个token在有效期内只需要远程校验一次。内省接口要求客户端认证，clientId对应的客户端需具有ROLE_TRUSTED_CLIENT权限。
+ * <pre>
+ *     CachingRemoteTokenServices tokenServices = new CachingRemoteTokenServices(10000, 300);
+ *     tokenServices.setCheckTokenEndpointUrl("http://frame-auth/token/introspect");
+ *     tokenServices.setClientId("frame");
+ *     tokenServices.setClientSecret("...");
+ *     tokenServices.setRestTemplate(loadBalancedRestTemplate);
+ * </pre>
+ *
+ * @author 37075
+ * @date 2018/11/26
+ * @time 10:30
+ * @tool intellij idea
+ */
+public class CachingRemoteTokenServices extends RemoteTokenServices {
+
+    private final Cache<HashCode, CachedAuthentication> cache;
+
+    /**
+     * @param maximumSize 最大缓存数量
+     * @param expireSeconds 缓存最长保留时间，token未过期时也会在此时间后重新校验，用于感知吊销
+     */
+    public CachingRemoteTokenServices(long maximumSize, long expireSeconds) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireSeconds, TimeUnit.SECONDS)
+                .build();
+        setAccessTokenConverter(new ClaimsAccessTokenConverter());
+    }
+
+    @Override
+    public OAuth2Authentication loadAuthentication(String accessToken) throws AuthenticationException, InvalidTokenException {
+        HashCode key = CachedAuthentication.hash(accessToken);
+        long now = System.currentTimeMillis();
+
+        CachedAuthentication cached = cache.getIfPresent(key);
+        if (cached != null) {
+            if (cached.expiration > now) {
+                return cached.toAuthentication();
+            }
+            cache.invalidate(key);
+        }
+
+        OAuth2Authentication authentication = super.loadAuthentication(accessToken);
+        long expiration = CachedAuthentication.expiration(authentication);
+        if (expiration > now) {
+            cache.put(key, new CachedAuthentication(authentication, CachedAuthentication.jti(authentication), expiration));
+        }
+        return authentication;
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * 把内省结果保存到details中，用于取得exp
+     */
+    private static class ClaimsAccessTokenConverter extends DefaultAccessTokenConverter {
+
+        @Override
+        public OAuth2Authentication extractAuthentication(Map<String, ?> claims) {
+            OAuth2Authentication authentication = super.extractAuthentication(claims);
+            authentication.setDetails(claims);
+            return authentication;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.blessedbin.frame.common.security;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Created by xubin on 2018/11/9.
+ *
+ * 缓存已校验的JWT，相同token再次访问时跳过签名校验和claims解析。
+ * 缓存以token的SHA-256为key，不在内存中保留原始token；缓存条目在token过期（exp）后失效。
+ * 设置了吊销判断时，命中缓存和重新校验的token都会按jti检查是否已吊销。
+ *
+ * @author 37075
+ * @date 2018/11/9
+ * @time 10:05
+ * @tool intellij idea
+ */
+public class CachingTokenServices extends DefaultTokenServices {
+
+    private final Cache<HashCode, CachedAuthentication> cache;
+
+    private Predicate<String> revoked = jti -> false;
+
+    /**
+     * @param maximumSize 最大缓存数量
+     * @param expireSeconds 缓存最长保留时间，token未过期时也会在此时间后重新校验
+     */
+    public CachingTokenServices(long maximumSize, long expireSeconds) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    @Override
+    public OAuth2Authentication loadAuthentication(String accessTokenValue) throws AuthenticationException, InvalidTokenException {
+        HashCode key = CachedAuthentication.hash(accessTokenValue);
+        long now = System.currentTimeMillis();
+
+        CachedAuthentication cached = cache.getIfPresent(key);
+        if (cached != null) {
+            if (cached.expiration > now) {
+                checkRevoked(cached.jti, accessTokenValue);
+                return cached.toAuthentication();
+            }
+            cache.invalidate(key);
+        }
+
+        OAuth2Authentication authentication = super.loadAuthentication(accessTokenValue);
+        String jti = CachedAuthentication.jti(authentication);
+        checkRevoked(jti, accessTokenValue);
+        long expiration = expiration(authentication, accessTokenValue);
+        if (expiration > now) {
+            cache.put(key, new CachedAuthentication(authentication, jti, expiration));
+        }
+        return authentication;
+    }
+
+    /**
+     * @param revoked 判断jti是否已吊销
+     */
+    public void setRevoked(Predicate<String> revoked) {
+        this.revoked = revoked;
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    private void checkRevoked(String jti, String accessTokenValue) {
+        if (jti != null && revoked.test(jti)) {
+            throw new InvalidTokenException("Access token was revoked: " + accessTokenValue);
+        }
+    }
+
+    private long expiration(OAuth2Authentication authentication, String accessTokenValue) {
+        long expiration = CachedAuthentication.expiration(authentication);
+        if (expiration >= 0) {
+            return expiration;
+        }
+        OAuth2AccessToken token = readAccessToken(accessTokenValue);
+        Date date = token == null ? null : token.getExpiration();
+        return date == null ? 0 : date.getTime();
+    }
+}
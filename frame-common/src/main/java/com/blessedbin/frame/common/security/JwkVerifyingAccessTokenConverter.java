@@ -0,0 +1,75 @@
+package com.blessedbin.frame.common.security;
+
+import org.springframework.security.jwt.Jwt;
+import org.springframework.security.jwt.JwtHelper;
+import org.springframework.security.jwt.crypto.sign.SignatureVerifier;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.common.util.JsonParser;
+import org.springframework.security.oauth2.common.util.JsonParserFactory;
+import org.springframework.security.oauth2.provider.token.AccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Created by xubin on 2018/11/27.
+ *
+ * 按JWT头部的kid选取公钥校验签名，网关和认证中心共用；签发token由子类负责
+ *
+ * @author 37075
+ * @date 2018/11/27
+ * @time 14:50
+ * @tool intellij idea
+ */
+public class JwkVerifyingAccessTokenConverter extends JwtAccessTokenConverter {
+
+    private final JsonParser jsonParser = JsonParserFactory.create();
+
+    private final Function<String, SignatureVerifier> verifiers;
+
+    /**
+     * @param verifiers 按kid查找校验器，未知的kid返回null
+     */
+    public JwkVerifyingAccessTokenConverter(Function<String, SignatureVerifier> verifiers) {
+        this.verifiers = verifiers;
+    }
+
+    @Override
+    protected Map<String, Object> decode(String token) {
+        String keyId = keyId(token);
+        SignatureVerifier verifier = keyId == null ? null : verifiers.apply(keyId);
+        if (verifier == null) {
+            throw new InvalidTokenException("Unknown signing key: " + keyId);
+        }
+        Map<String, Object> claims;
+        try {
+            Jwt jwt = JwtHelper.decodeAndVerify(token, verifier);
+            claims = jsonParser.parseMap(jwt.getClaims());
+        } catch (Exception e) {
+            throw new InvalidTokenException("Cannot convert access token to JSON", e);
+        }
+        Object exp = claims.get(AccessTokenConverter.EXP);
+        if (exp instanceof Integer) {
+            claims.put(AccessTokenConverter.EXP, ((Integer) exp).longValue());
+        }
+        getJwtClaimsSetVerifier().verify(claims);
+        return claims;
+    }
+
+    private String keyId(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        try {
+            byte[] header = Base64.getUrlDecoder().decode(token.substring(0, dot));
+            Object keyId = jsonParser.parseMap(new String(header, StandardCharsets.UTF_8)).get(RsaJwk.KEY_ID);
+            return keyId == null ? null : keyId.toString();
+        } catch (RuntimeException e) {
+            throw new InvalidTokenException("Cannot parse token header", e);
+        }
+    }
+}
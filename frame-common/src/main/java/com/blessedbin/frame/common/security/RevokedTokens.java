@@ -0,0 +1,87 @@
+package com.blessedbin.frame.common.security;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Created by xubin on 2018/11/23.
+ *
+ * 已吊销的jti集合。绝大多数请求的token没有被吊销，先查布隆过滤器即可返回，
+ * 只有布隆过滤器命中时才查精确集合。布隆过滤器不支持删除，过期的记录通过{@link #purge(long)}重建清理。
+ *
+ * @author 37075
+ * @date 2018/11/23
+ * @time 10:20
+ * @tool intellij idea
+ */
+public final class RevokedTokens {
+
+    private static final int MIN_CAPACITY = 1024;
+
+    private static final double FPP = 0.001;
+
+    private final int capacity;
+
+    private final BloomFilter<CharSequence> filter;
+
+    /**
+     * jti -> 过期时间（毫秒）
+     */
+    private final Map<String, Long> entries;
+
+    public RevokedTokens(Map<String, Long> entries) {
+        this.capacity = Math.max(MIN_CAPACITY, entries.size() * 2);
+        this.filter = BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), capacity, FPP);
+        this.entries = new ConcurrentHashMap<>(entries);
+        this.entries.keySet().forEach(filter::put);
+    }
+
+    public static RevokedTokens empty() {
+        return new RevokedTokens(new ConcurrentHashMap<>());
+    }
+
+    public boolean isRevoked(String jti, long now) {
+        if (!filter.mightContain(jti)) {
+            return false;
+        }
+        Long expiration = entries.get(jti);
+        return expiration != null && expiration > now;
+    }
+
+    /**
+     * 添加一条记录
+     * @return 超出容量时返回false，此时误判率会上升，应当重建
+     */
+    public boolean add(String jti, long expiration) {
+        filter.put(jti);
+        entries.merge(jti, expiration, Math::max);
+        return entries.size() <= capacity;
+    }
+
+    /**
+     * 去掉已过期的记录并按当前数量重建
+     * @param now 当前时间（毫秒）
+     * @return
+     */
+    public RevokedTokens purge(long now) {
+        Map<String, Long> live = new ConcurrentHashMap<>();
+        entries.forEach((jti, expiration) -> {
+            if (expiration > now) {
+                live.put(jti, expiration);
+            }
+        });
+        return new RevokedTokens(live);
+    }
+
+    public Map<String, Long> getEntries() {
+        return entries;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
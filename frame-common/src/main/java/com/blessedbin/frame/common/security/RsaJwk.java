@@ -0,0 +1,102 @@
+package com.blessedbin.frame.common.security;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Created by xubin on 2018/11/27.
+ *
+ * RSA公钥与JWK（RFC 7517）之间的转换，认证中心发布JWK集合，资源服务据此校验JWT签名
+ *
+ * @author 37075
+ * @date 2018/11/27
+ * @time 10:10
+ * @tool intellij idea
+ */
+public final class RsaJwk {
+
+    public static final String KEYS = "keys";
+
+    public static final String KEY_ID = "kid";
+
+    public static final String ALGORITHM = "RS256";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private RsaJwk() {
+    }
+
+    /**
+     * @param keyId kid
+     * @param publicKey 公钥
+     * @return JWK
+     */
+    public static Map<String, Object> toJwk(String keyId, RSAPublicKey publicKey) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "RSA");
+        jwk.put(KEY_ID, keyId);
+        jwk.put("use", "sig");
+        jwk.put("alg", ALGORITHM);
+        jwk.put("n", encode(publicKey.getModulus()));
+        jwk.put("e", encode(publicKey.getPublicExponent()));
+        return jwk;
+    }
+
+    /**
+     * @param jwk JWK
+     * @return 公钥，不是RSA签名密钥时返回null
+     */
+    public static RSAPublicKey toPublicKey(Map<String, ?> jwk) {
+        if (!"RSA".equals(jwk.get("kty")) || jwk.get("n") == null || jwk.get("e") == null) {
+            return null;
+        }
+        if (jwk.get("use") != null && !"sig".equals(jwk.get("use"))) {
+            return null;
+        }
+        BigInteger modulus = new BigInteger(1, DECODER.decode(jwk.get("n").toString()));
+        BigInteger exponent = new BigInteger(1, DECODER.decode(jwk.get("e").toString()));
+        try {
+            return (RSAPublicKey) KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(modulus, exponent));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("无效的RSA公钥", e);
+        }
+    }
+
+    /**
+     * 按RFC 7638计算公钥指纹，用作默认的kid
+     * @param publicKey 公钥
+     * @return
+     */
+    public static String thumbprint(RSAPublicKey publicKey) {
+        String json = "{\"e\":\"" + encode(publicKey.getPublicExponent())
+                + "\",\"kty\":\"RSA\",\"n\":\"" + encode(publicKey.getModulus()) + "\"}";
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8));
+            return ENCODER.encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 无符号大端编码，去掉BigInteger补码表示中多出的前导0
+     */
+    private static String encode(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return ENCODER.encodeToString(bytes);
+    }
+}
@@ -0,0 +1,97 @@
+package com.blessedbin.frame.common.security;
+
+import com.blessedbin.frame.common.contant.SecurityConstants;
+import com.blessedbin.frame.common.event.TokenRevokedEvent;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Created by xubin on 2018/11/23.
+ *
+ * 网关和认证中心共用的token吊销列表。启动时从Redis加载未过期的记录，之后通过{@link TokenRevokedEvent}增量更新，
+ * 并定时与Redis对齐，兜底处理丢失的事件，同时清理已过期的记录。由各服务注册为bean，需要开启定时任务。
+ *
+ * @author 37075
+ * @date 2018/11/23
+ * @time 10:45
+ * @tool intellij idea
+ */
+@Log4j2
+public class TokenRevocationList {
+
+    private final StringRedisTemplate redisTemplate;
+
+    private volatile RevokedTokens tokens = RevokedTokens.empty();
+
+    public TokenRevocationList(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    /**
+     * @param jti JWT的jti
+     * @return 是否已吊销
+     */
+    public boolean isRevoked(String jti) {
+        return jti != null && tokens.isRevoked(jti, System.currentTimeMillis());
+    }
+
+    @EventListener
+    public synchronized void onTokenRevoked(TokenRevokedEvent event) {
+        if (event.getJti() == null) {
+            return;
+        }
+        if (!tokens.add(event.getJti(), event.getExpiration())) {
+            tokens = tokens.purge(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * 从Redis重新加载，并清理已过期的记录
+     */
+    @Scheduled(fixedDelayString = "${frame.security.revocation.refresh-millis:60000}")
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        Set<ZSetOperations.TypedTuple<String>> revoked;
+        try {
+            revoked = redisTemplate.opsForZSet()
+                    .rangeByScoreWithScores(SecurityConstants.TOKEN_REVOKED_KEY, now, Double.MAX_VALUE);
+        } catch (RuntimeException e) {
+            log.warn("加载token吊销列表失败，继续使用当前列表：{}", e.getMessage());
+            synchronized (this) {
+                tokens = tokens.purge(now);
+            }
+            return;
+        }
+        Map<String, Long> entries = new HashMap<>();
+        if (revoked != null) {
+            for (ZSetOperations.TypedTuple<String> tuple : revoked) {
+                if (tuple.getValue() != null && tuple.getScore() != null) {
+                    entries.put(tuple.getValue(), tuple.getScore().longValue());
+                }
+            }
+        }
+        synchronized (this) {
+            // 加载期间收到的事件不能丢
+            tokens.getEntries().forEach((jti, expiration) -> {
+                if (expiration > now) {
+                    entries.merge(jti, expiration, Math::max);
+                }
+            });
+            tokens = new RevokedTokens(entries);
+        }
+        log.debug("token吊销列表已刷新，共{}条", entries.size());
+    }
+}
@@ -1,11 +1,17 @@
 package com.blessedbin.frame.common.service;
 
+import com.blessedbin.frame.common.entity.FrameIdentity;
+import com.blessedbin.frame.common.entity.FramePasswordUpgrade;
 import com.blessedbin.frame.common.entity.FrameUser;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import springfox.documentation.annotations.ApiIgnore;
 
+import java.util.List;
+
 /**
  * Created by xubin on 2018/10/25.
  *
@@ -23,4 +29,28 @@ public interface UserApiService {
 
     @GetMapping("/findByUuid")
     FrameUser findByUuid(@RequestParam("uuid") String uuid);
+
+    /**
+     * 查询用户身份，不含密码
+     * @param uuid 用户ID
+     * @return 用户不存在时返回null
+     */
+    @GetMapping("/findIdentityByUuid")
+    FrameIdentity findIdentityByUuid(@RequestParam("uuid") String uuid);
+
+    /**
+     * 批量查询用户身份
+     * @param uuids 用户ID
+     * @return 存在的用户，顺序与参数一致
+     */
+    @PostMapping("/findIdentityByUuids")
+    List<FrameIdentity> findIdentityByUuids(@RequestBody List<String> uuids);
+
+    /**
+     * 升级密码的编码
+     * @param upgrade
+     * @return 是否已更新，密码已被修改时返回false
+     */
+    @PostMapping("/upgradePassword")
+    boolean upgradePassword(@RequestBody FramePasswordUpgrade upgrade);
 }
@@ -0,0 +1,54 @@
+package com.blessedbin.frame.common.security;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by xubin on 2018/11/23.
+ *
+ * @author 37075
+ * @date 2018/11/23
+ * @time 14:10
+ * @tool intellij idea
+ */
+public class RevokedTokensTest {
+
+    @Test
+    public void revokedUntilExpiration() {
+        RevokedTokens tokens = new RevokedTokens(Collections.singletonMap("a", 2000L));
+        tokens.add("b", 3000L);
+
+        assertTrue(tokens.isRevoked("a", 1000));
+        assertTrue(tokens.isRevoked("b", 2500));
+        assertFalse(tokens.isRevoked("a", 2000));
+        assertFalse(tokens.isRevoked("c", 1000));
+    }
+
+    @Test
+    public void purgeDropsExpired() {
+        RevokedTokens tokens = RevokedTokens.empty();
+        tokens.add("a", 1000L);
+        tokens.add("b", 3000L);
+
+        RevokedTokens purged = tokens.purge(2000);
+        assertEquals(1, purged.size());
+        assertTrue(purged.isRevoked("b", 2000));
+        assertFalse(purged.isRevoked("a", 500));
+    }
+
+    @Test
+    public void addReportsOverflow() {
+        RevokedTokens tokens = RevokedTokens.empty();
+        boolean ok = true;
+        for (int i = 0; i <= 1024; i++) {
+            ok = tokens.add("jti-" + i, Long.MAX_VALUE);
+        }
+        assertFalse(ok);
+        assertTrue(tokens.isRevoked("jti-1024", 0));
+    }
+}
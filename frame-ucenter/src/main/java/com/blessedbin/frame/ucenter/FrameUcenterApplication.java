@@ -1,9 +1,11 @@
 package com.blessedbin.frame.ucenter;
 
 import com.baomidou.mybatisplus.extension.plugins.PaginationInterceptor;
+import com.blessedbin.frame.common.event.FrameCacheEvictEvent;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.bus.jackson.RemoteApplicationEventScan;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
@@ -16,6 +18,7 @@ import org.mybatis.spring.annotation.MapperScan;
 @EnableTransactionManagement
 @Log4j2
 @EnableAspectJAutoProxy(proxyTargetClass = true)
+@RemoteApplicationEventScan(basePackageClasses = FrameCacheEvictEvent.class)
 public class FrameUcenterApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,57 @@
+package com.blessedbin.frame.ucenter.component;
+
+import com.blessedbin.frame.common.event.FrameCacheEvictEvent;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Created by xubin on 2018/11/6.
+ *
+ * 发布缓存失效事件，处于事务中时在提交后发布，避免其他服务读到未提交的数据
+ *
+ * @author 37075
+ * @date 2018/11/6
+ * @time 10:15
+ * @tool intellij idea
+ */
+@Component
+@Log4j2
+public class CacheEvictPublisher {
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Value("${spring.cloud.bus.id:application}")
+    private String busId;
+
+    public void publish(FrameCacheEvictEvent.Region region) {
+        publish(region, Collections.emptyList());
+    }
+
+    public void publish(FrameCacheEvictEvent.Region region, Collection<String> keys) {
+        FrameCacheEvictEvent event = new FrameCacheEvictEvent(this, busId, region, keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    doPublish(event);
+                }
+            });
+        } else {
+            doPublish(event);
+        }
+    }
+
+    private void doPublish(FrameCacheEvictEvent event) {
+        log.debug("发布缓存失效事件：{}", event);
+        applicationEventPublisher.publishEvent(event);
+    }
+}
@@ -1,8 +1,9 @@
 package com.blessedbin.frame.ucenter.component;
 
 import com.blessedbin.frame.common.contant.SecurityConstants;
+import com.blessedbin.frame.common.entity.FrameIdentity;
+import com.blessedbin.frame.common.entity.FrameRole;
 import com.blessedbin.frame.common.entity.FrameUser;
-import com.blessedbin.frame.common.service.UserApiService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.MethodParameter;
@@ -15,10 +16,13 @@ import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.ModelAndViewContainer;
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.stream.Collectors;
 
 /**
  * Created by xubin on 2018/10/29.
  *
+ * 由缓存的用户身份组装当前用户，不含密码，角色只有roleKey
+ *
  * @author 37075
  * @date 2018/10/29
  * @time 15:36
@@ -29,7 +33,7 @@ import javax.servlet.http.HttpServletRequest;
 public class FrameUserArgumentResolver implements HandlerMethodArgumentResolver {
 
     @Autowired
-    private UserApiService userService;
+    private UserIdentityCache userIdentityCache;
 
     /**
      * Whether the given {@linkplain MethodParameter method parameter} is
@@ -65,10 +69,24 @@ public class FrameUserArgumentResolver implements HandlerMethodArgumentResolver
                                   NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
         HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
         String uuid = request.getHeader(SecurityConstants.UUID_HEADER);
-        if(StringUtils.isEmpty(request)){
+        if(StringUtils.isEmpty(uuid)){
             log.debug("frame user argument resolver uuid is empty");
             return null;
         }
-        return userService.findByUuid(uuid);
+        FrameIdentity identity = userIdentityCache.get(uuid);
+        if (identity == null) {
+            return null;
+        }
+        return FrameUser.builder()
+                .uuid(identity.getUuid())
+                .username(identity.getUsername())
+                .enabled(identity.isEnabled())
+                .accountNonExpired(identity.isAccountNonExpired())
+                .accountNonLocked(identity.isAccountNonLocked())
+                .credentialsNonExpired(identity.isCredentialsNonExpired())
+                .roleList(identity.getRoleKeys().stream()
+                        .map(roleKey -> FrameRole.builder().roleKey(roleKey).build())
+                        .collect(Collectors.toList()))
+                .build();
     }
 }
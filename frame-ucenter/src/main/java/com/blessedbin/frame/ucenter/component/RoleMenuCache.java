@@ -0,0 +1,116 @@
+package com.blessedbin.frame.ucenter.component;
+
+import com.blessedbin.frame.common.event.FrameCacheEvictEvent;
+import com.blessedbin.frame.ucenter.entity.dto.MenuTreeDto;
+import com.blessedbin.frame.ucenter.service.ISysRolePermissionService;
+import com.blessedbin.frame.ucenter.support.MenuTreeBuilder;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableSet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by xubin on 2018/11/29.
+ *
+ * 角色可见菜单缓存，每个角色的权限id只查询一次，按角色组合缓存裁剪后的菜单树。
+ * 组合结果记录其来源的菜单树，菜单树重建后自动重新裁剪。
+ *
+ * @author 37075
+ * @date 2018/11/29
+ * @time 14:10
+ * @tool intellij idea
+ */
+@Component
+public class RoleMenuCache {
+
+    @Autowired
+    private ISysRolePermissionService rolePermissionService;
+
+    @Value("${frame.ucenter.menu-cache.expire-seconds:300}")
+    private long expireSeconds;
+
+    /**
+     * 角色关键字 -> 有效权限id
+     */
+    private LoadingCache<String, Set<Integer>> roles;
+
+    /**
+     * 排序后的角色关键字组合 -> 裁剪后的菜单树
+     */
+    private Cache<List<String>, UserMenu> combinations;
+
+    @PostConstruct
+    public void init() {
+        roles = CacheBuilder.newBuilder()
+                .expireAfterWrite(expireSeconds, TimeUnit.SECONDS)
+                .build(CacheLoader.from(roleKey -> ImmutableSet.copyOf(rolePermissionService.selectPermissionIdsByRoleKey(roleKey))));
+        combinations = CacheBuilder.newBuilder()
+                .maximumSize(1024)
+                .expireAfterWrite(expireSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * 获取角色组合可见的菜单树，结果在多个请求间共享，调用方不应修改
+     * @param roleKeys 排序后的角色关键字
+     * @param menuTree 已启用的全部菜单树
+     * @return
+     */
+    public List<MenuTreeDto> get(List<String> roleKeys, List<MenuTreeDto> menuTree) {
+        UserMenu cached = combinations.getIfPresent(roleKeys);
+        if (cached != null && cached.source == menuTree) {
+            return cached.tree;
+        }
+        Set<Integer> visible = new HashSet<>();
+        for (String roleKey : roleKeys) {
+            visible.addAll(roles.getUnchecked(roleKey));
+        }
+        List<MenuTreeDto> tree = MenuTreeBuilder.filter(menuTree, visible::contains);
+        combinations.put(roleKeys, new UserMenu(menuTree, tree));
+        return tree;
+    }
+
+    @EventListener
+    public void onCacheEvict(FrameCacheEvictEvent event) {
+        switch (event.getRegion()) {
+            case ROLE_PERMISSION:
+                if (event.isAll()) {
+                    roles.invalidateAll();
+                } else {
+                    roles.invalidateAll(event.getKeys());
+                }
+                combinations.invalidateAll();
+                break;
+            case MENU:
+                // 角色的有效权限id只包含已启用的权限
+                roles.invalidateAll();
+                combinations.invalidateAll();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static final class UserMenu {
+
+        private final List<MenuTreeDto> source;
+
+        private final List<MenuTreeDto> tree;
+
+        private UserMenu(List<MenuTreeDto> source, List<MenuTreeDto> tree) {
+            this.source = source;
+            this.tree = tree;
+        }
+    }
+}
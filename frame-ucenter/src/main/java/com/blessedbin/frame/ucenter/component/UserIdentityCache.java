@@ -0,0 +1,128 @@
+package com.blessedbin.frame.ucenter.component;
+
+import com.blessedbin.frame.common.entity.FrameIdentity;
+import com.blessedbin.frame.common.event.FrameCacheEvictEvent;
+import com.blessedbin.frame.ucenter.service.UserService;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by xubin on 2018/11/28.
+ *
+ * 按uuid缓存用户身份，批量查询时未命中的用户合并为一次SQL。
+ * 用户或用户角色修改后通过{@link FrameCacheEvictEvent}失效；角色本身的修改不发布事件，由过期时间兜底。
+ *
+ * @author 37075
+ * @date 2018/11/28
+ * @time 9:45
+ * @tool intellij idea
+ */
+@Component
+public class UserIdentityCache {
+
+    @Autowired
+    private UserService userService;
+
+    @Value("${frame.ucenter.identity-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${frame.ucenter.identity-cache.expire-seconds:300}")
+    private long expireSeconds;
+
+    /**
+     * 不存在的用户同样缓存，避免反复查询
+     */
+    private LoadingCache<String, Optional<FrameIdentity>> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireSeconds, TimeUnit.SECONDS)
+                .build(new CacheLoader<String, Optional<FrameIdentity>>() {
+                    @Override
+                    public Optional<FrameIdentity> load(String uuid) {
+                        return loadAll(Collections.singleton(uuid)).get(uuid);
+                    }
+
+                    @Override
+                    public Map<String, Optional<FrameIdentity>> loadAll(Iterable<? extends String> uuids) {
+                        Collection<String> keys = new LinkedHashSet<>();
+                        uuids.forEach(keys::add);
+                        Map<String, Optional<FrameIdentity>> result = new HashMap<>(keys.size() * 2);
+                        for (FrameIdentity identity : userService.findIdentitiesByUuids(keys)) {
+                            result.put(identity.getUuid(), Optional.of(identity));
+                        }
+                        for (String key : keys) {
+                            result.putIfAbsent(key, Optional.empty());
+                        }
+                        return result;
+                    }
+                });
+    }
+
+    /**
+     * @param uuid 用户ID
+     * @return 用户不存在时返回null
+     */
+    public FrameIdentity get(String uuid) {
+        if (uuid == null) {
+            return null;
+        }
+        return cache.getUnchecked(uuid).orElse(null);
+    }
+
+    /**
+     * @param uuids 用户ID
+     * @return 存在的用户，顺序与参数一致
+     */
+    public List<FrameIdentity> getAll(Collection<String> uuids) {
+        Collection<String> keys = new LinkedHashSet<>(uuids);
+        keys.remove(null);
+        Map<String, Optional<FrameIdentity>> loaded;
+        try {
+            loaded = cache.getAll(keys);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        List<FrameIdentity> result = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            loaded.get(key).ifPresent(result::add);
+        }
+        return result;
+    }
+
+    @EventListener
+    public void onCacheEvict(FrameCacheEvictEvent event) {
+        if (event.getRegion() != FrameCacheEvictEvent.Region.USER
+                && event.getRegion() != FrameCacheEvictEvent.Region.USER_ROLE) {
+            return;
+        }
+        if (event.isAll()) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidateAll(event.getKeys());
+        }
+    }
+}
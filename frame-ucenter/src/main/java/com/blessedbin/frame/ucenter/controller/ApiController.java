@@ -3,12 +3,14 @@ package com.blessedbin.frame.ucenter.controller;
 import com.blessedbin.frame.common.Pagination;
 import com.blessedbin.frame.common.SimpleResponse;
 import com.blessedbin.frame.common.entity.FramePermission;
+import com.blessedbin.frame.common.entity.FramePermissionSnapshot;
 import com.blessedbin.frame.common.exception.ParamCheckRuntimeException;
 import com.blessedbin.frame.common.ui.SelectNode;
 import com.blessedbin.frame.ucenter.entity.SysPermission;
 import com.blessedbin.frame.ucenter.entity.pojo.SysApi;
 import com.blessedbin.frame.ucenter.service.ApiService;
 import com.blessedbin.frame.ucenter.service.ISysPermissionService;
+import com.blessedbin.frame.ucenter.service.ISysRolePermissionService;
 import com.blessedbin.frame.ucenter.service.ISysRoleService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -48,6 +50,9 @@ public class ApiController {
     @Autowired
     private ISysRoleService roleService;
 
+    @Autowired
+    private ISysRolePermissionService rolePermissionService;
+
     @Autowired
     private DiscoveryClient discoveryClient;
     /**
@@ -182,9 +187,48 @@ public class ApiController {
     @ApiIgnore
     public List<FramePermission> findUserApiByUuid(@PathVariable("uuid") String uuid){
         List<SysApi> apis = apiService.selectByUuid(uuid);
-        return apis.stream().map(sysApi ->
-                FramePermission.builder().method(sysApi.getMethod()).url(sysApi.getUrl()).build())
-                .collect(Collectors.toList());
+        return apis.stream().map(this::toFramePermission).collect(Collectors.toList());
+    }
+
+    /**
+     * 网关用于编译鉴权索引的完整API目录
+     * @return
+     */
+    @GetMapping("/findAllApi")
+    @ApiIgnore
+    public List<FramePermission> findAllApi(){
+        return apiService.selectAll().stream().filter(Objects::nonNull).map(this::toFramePermission).collect(Collectors.toList());
+    }
+
+    /**
+     * 网关用于计算角色权限位图
+     * @param roleKey 角色关键字
+     * @return
+     */
+    @GetMapping("/findRolePermission")
+    @ApiIgnore
+    public List<Integer> findRolePermission(@RequestParam("roleKey") String roleKey){
+        return rolePermissionService.selectPermissionIdsByRoleKey(roleKey);
+    }
+
+    /**
+     * 网关本地快照使用的完整权限目录
+     * @return
+     */
+    @GetMapping("/findPermissionSnapshot")
+    @ApiIgnore
+    public FramePermissionSnapshot findPermissionSnapshot(){
+        return FramePermissionSnapshot.builder()
+                .apis(findAllApi())
+                .roles(rolePermissionService.selectAllPermissionIds())
+                .operations(permissionService.selectByType(SysPermission.TYPE_OPERATION).stream()
+                        .filter(operation -> Boolean.TRUE.equals(operation.getEnabled()) && operation.getCode() != null)
+                        .collect(Collectors.toMap(SysPermission::getCode, SysPermission::getPermissionId, (a, b) -> a)))
+                .build();
+    }
+
+    private FramePermission toFramePermission(SysApi sysApi) {
+        return FramePermission.builder().id(sysApi.getId()).method(sysApi.getMethod()).url(sysApi.getUrl()).build();
     }
 
 
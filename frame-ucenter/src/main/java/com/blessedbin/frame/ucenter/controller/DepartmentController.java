@@ -1,24 +1,36 @@
 package com.blessedbin.frame.ucenter.controller;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.blessedbin.frame.common.Pagination;
 import com.blessedbin.frame.common.SimpleResponse;
 import com.blessedbin.frame.common.exception.ParamCheckRuntimeException;
 import com.blessedbin.frame.common.ui.TreeNode;
 import com.blessedbin.frame.common.validate.PostMethodValidationGroup;
 import com.blessedbin.frame.ucenter.entity.SysDepartment;
+import com.blessedbin.frame.ucenter.entity.SysUser;
 import com.blessedbin.frame.ucenter.service.ISysDepartmentService;
+import com.blessedbin.frame.ucenter.service.ISysUserService;
 import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static com.blessedbin.frame.common.data.DataUtils.toPagination;
+
 /**
  * Created by xubin on 2018/7/9.
  * 部门管理
@@ -36,6 +48,9 @@ public class DepartmentController {
     @Autowired
     private ISysDepartmentService departmentService;
 
+    @Autowired
+    private ISysUserService userService;
+
     @RequestMapping("/tree.json")
     public SimpleResponse<List<TreeNode>> treeTables(){
         return SimpleResponse.ok(departmentService.getDepartmentTree());
@@ -73,4 +88,33 @@ public class DepartmentController {
         return SimpleResponse.created("创建成功",department);
     }
 
+
+    /**
+     * 移动部门，pid为空或-1时移动为顶层部门
+     * @param id
+     * @param pid
+     * @return
+     */
+    @PutMapping("/{id}/move")
+    @ApiOperation("移动部门及其下级部门")
+    public SimpleResponse move(@PathVariable Integer id, @RequestParam(required = false) Integer pid) {
+        departmentService.move(id, pid == null || pid == -1 ? null : pid);
+        return SimpleResponse.accepted("移动成功");
+    }
+
+    @GetMapping("/{id}/users")
+    @ApiOperation("查看部门及其下级部门中的用户")
+    public SimpleResponse<Pagination<SysUser>> users(@PathVariable Integer id,
+                                                     @RequestParam(name = "page_num", required = false, defaultValue = "1") Integer pageNum,
+                                                     @RequestParam(name = "page_size", required = false, defaultValue = "20") Integer pageSize) {
+        IPage<SysUser> iPage = userService.pageByDepartmentSubtree(new Page<>(pageNum, pageSize), id);
+        return SimpleResponse.ok(toPagination(iPage));
+    }
+
+    @GetMapping("/{id}/users/count")
+    @ApiOperation("统计部门及其下级部门中的用户数量")
+    public SimpleResponse<Integer> countUsers(@PathVariable Integer id) {
+        return SimpleResponse.ok(userService.countByDepartmentSubtree(id));
+    }
+
 }
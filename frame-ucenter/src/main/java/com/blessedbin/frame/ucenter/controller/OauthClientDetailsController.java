@@ -4,6 +4,8 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.blessedbin.frame.common.Pagination;
 import com.blessedbin.frame.common.SimpleResponse;
+import com.blessedbin.frame.common.event.FrameCacheEvictEvent;
+import com.blessedbin.frame.ucenter.component.CacheEvictPublisher;
 import com.blessedbin.frame.ucenter.entity.OauthClientDetails;
 import com.blessedbin.frame.ucenter.service.IOauthClientDetailsService;
 import lombok.extern.log4j.Log4j2;
@@ -11,6 +13,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Collections;
+
 import static com.blessedbin.frame.common.data.DataUtils.toPagination;
 
 /**
@@ -30,6 +34,9 @@ public class OauthClientDetailsController {
     @Autowired
     private IOauthClientDetailsService oauthClientDetailsService;
 
+    @Autowired
+    private CacheEvictPublisher cacheEvictPublisher;
+
     /**
      * @param pageNum
      * @param pageSize
@@ -49,6 +56,7 @@ public class OauthClientDetailsController {
     @PostMapping
     public SimpleResponse add(@RequestBody @Validated OauthClientDetails details){
         oauthClientDetailsService.save(details);
+        cacheEvictPublisher.publish(FrameCacheEvictEvent.Region.OAUTH_CLIENT, Collections.singletonList(details.getClientId()));
         return SimpleResponse.created();
     }
 
@@ -69,12 +77,14 @@ public class OauthClientDetailsController {
     @DeleteMapping("/{id}")
     public SimpleResponse delete(@PathVariable("id") String id) {
         oauthClientDetailsService.removeById(id);
+        cacheEvictPublisher.publish(FrameCacheEvictEvent.Region.OAUTH_CLIENT, Collections.singletonList(id));
         return SimpleResponse.deleted();
     }
 
     @PutMapping
     public SimpleResponse edit(@RequestBody @Validated OauthClientDetails details){
         oauthClientDetailsService.updateById(details);
+        cacheEvictPublisher.publish(FrameCacheEvictEvent.Region.OAUTH_CLIENT, Collections.singletonList(details.getClientId()));
         return SimpleResponse.accepted();
     }
 }
@@ -1,19 +1,27 @@
 package com.blessedbin.frame.ucenter.controller;
 
-import com.blessedbin.frame.common.entity.FrameRole;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.blessedbin.frame.common.entity.FrameIdentity;
+import com.blessedbin.frame.common.entity.FramePasswordUpgrade;
 import com.blessedbin.frame.common.entity.FrameUser;
+import com.blessedbin.frame.common.event.FrameCacheEvictEvent;
 import com.blessedbin.frame.common.service.UserApiService;
+import com.blessedbin.frame.ucenter.component.CacheEvictPublisher;
+import com.blessedbin.frame.ucenter.component.UserIdentityCache;
 import com.blessedbin.frame.ucenter.entity.SysUser;
-import com.blessedbin.frame.ucenter.service.ISysRoleService;
+import com.blessedbin.frame.ucenter.service.ISysUserService;
 import com.blessedbin.frame.ucenter.service.UserService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 import springfox.documentation.annotations.ApiIgnore;
 
+import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Created by xubin on 2018/9/26.
@@ -32,45 +40,53 @@ public class UserApiServiceImpl implements UserApiService {
     private UserService userService;
 
     @Autowired
-    private ISysRoleService roleService;
+    private ISysUserService sysUserService;
+
+    @Autowired
+    private CacheEvictPublisher cacheEvictPublisher;
+
+    @Autowired
+    private UserIdentityCache userIdentityCache;
 
 
     @GetMapping("/findByUsername")
     @Override
     public FrameUser findByUsername(String username){
-        SysUser user = userService.findByUsername(username);
-        if(user == null) {
-            return null;
-        } else {
-            return buildFrameUser(user);
-        }
+        return userService.findFrameUserByUsername(username);
     }
 
     @Override
     public FrameUser findByUuid(String uuid) {
-        SysUser user = userService.selectByUuid(uuid);
-        if(user == null) {
-            return null;
-        } else {
-            return buildFrameUser(user);
-        }
+        return userService.findFrameUserByUuid(uuid);
+    }
+
+    @Override
+    public FrameIdentity findIdentityByUuid(String uuid) {
+        return userIdentityCache.get(uuid);
     }
 
-    private FrameUser buildFrameUser(SysUser user) {
-        List<FrameRole> roles = roleService.selectByUuid(
-                user.getUuid()).stream().map(role -> FrameRole.builder().id(role.getId()).roleKey(role.getRoleKey()).roleName(role.getRoleName()).build()
-        )
-                .collect(Collectors.toList());
-        return FrameUser.builder()
-                .uuid(user.getUuid())
-                .accountNonExpired(user.getAccountNonExpired())
-                .accountNonLocked(user.getAccountNonLocked())
-                .roleList(roles)
-                .credentialsNonExpired(user.getCredentialsNonExpired())
-                .enabled(user.getEnabled())
-                .password(user.getPassword())
-                .username(user.getUsername())
-                .build();
+    @PostMapping("/findIdentityByUuids")
+    @Override
+    public List<FrameIdentity> findIdentityByUuids(@RequestBody List<String> uuids) {
+        return userIdentityCache.getAll(uuids);
+    }
+
+    @PostMapping("/upgradePassword")
+    @Override
+    public boolean upgradePassword(@RequestBody FramePasswordUpgrade upgrade) {
+        SysUser user = new SysUser();
+        user.setPassword(upgrade.getNewPassword());
+        user.setUpdateTime(LocalDateTime.now());
+        // 只在密码未被修改时更新，避免覆盖用户同时修改的密码
+        LambdaQueryWrapper<SysUser> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(SysUser::getUuid, upgrade.getUuid())
+                .eq(SysUser::getPassword, upgrade.getOldPassword());
+        boolean updated = sysUserService.update(user, wrapper);
+        if (updated) {
+            log.debug("用户密码编码已升级：{}", upgrade.getUuid());
+            cacheEvictPublisher.publish(FrameCacheEvictEvent.Region.USER, Collections.singletonList(upgrade.getUuid()));
+        }
+        return updated;
     }
 
 }
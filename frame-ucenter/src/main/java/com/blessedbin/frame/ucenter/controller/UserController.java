@@ -3,7 +3,9 @@ package com.blessedbin.frame.ucenter.controller;
 import com.blessedbin.frame.common.SimpleResponse;
 import com.blessedbin.frame.common.contant.SecurityConstants;
 import com.blessedbin.frame.common.entity.FrameUser;
+import com.blessedbin.frame.common.event.FrameCacheEvictEvent;
 import com.blessedbin.frame.common.exception.ParamCheckRuntimeException;
+import com.blessedbin.frame.ucenter.component.CacheEvictPublisher;
 import com.blessedbin.frame.ucenter.entity.SysUser;
 import com.blessedbin.frame.ucenter.entity.dto.MenuTreeDto;
 import com.blessedbin.frame.ucenter.service.ISysUserService;
@@ -33,6 +35,7 @@ import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -58,6 +61,9 @@ public class UserController {
     @Autowired
     private MenuService menuService;
 
+    @Autowired
+    private CacheEvictPublisher cacheEvictPublisher;
+
     @Autowired
     private FastFileStorageClient fastFileStorageClient;
 
@@ -148,6 +154,7 @@ public class UserController {
         sysUser.setUuid(user.getUuid());
         sysUser.setPassword(passwordEncoder.encode(param.getPass()));
         userService.updateById(sysUser);
+        cacheEvictPublisher.publish(FrameCacheEvictEvent.Region.USER, Collections.singletonList(uuid));
 
 
         return SimpleResponse.accepted("修改成功");
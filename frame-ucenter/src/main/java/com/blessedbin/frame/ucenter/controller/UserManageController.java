@@ -4,10 +4,12 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.blessedbin.frame.common.Pagination;
 import com.blessedbin.frame.common.SimpleResponse;
+import com.blessedbin.frame.common.event.FrameCacheEvictEvent;
 import com.blessedbin.frame.common.exception.ParamCheckRuntimeException;
 import com.blessedbin.frame.common.exception.ResourceNotFoundException;
 import com.blessedbin.frame.common.utils.UUIDUtils;
 import com.blessedbin.frame.common.validate.PostMethodValidationGroup;
+import com.blessedbin.frame.ucenter.component.CacheEvictPublisher;
 import com.blessedbin.frame.ucenter.entity.SysUser;
 import com.blessedbin.frame.ucenter.entity.dto.UserDto;
 import com.blessedbin.frame.ucenter.service.ISysUserService;
@@ -22,6 +24,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 
 import static com.blessedbin.frame.common.contant.SecurityConstants.DEFAULT_PASSWORD;
 import static com.blessedbin.frame.common.data.DataUtils.toPagination;
@@ -48,6 +51,9 @@ public class UserManageController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private CacheEvictPublisher cacheEvictPublisher;
+
 
     @GetMapping("/datatable.json")
     @ApiOperation(value = "查看用户")
@@ -69,6 +75,7 @@ public class UserManageController {
     @ApiOperation(value = "删除用户")
     public SimpleResponse delete(@RequestParam String uuid){
         userService.removeById(uuid);
+        cacheEvictPublisher.publish(FrameCacheEvictEvent.Region.USER, Collections.singletonList(uuid));
         return SimpleResponse.deleted();
     }
 
@@ -130,6 +137,7 @@ public class UserManageController {
         nUser.setUpdateTime(LocalDateTime.now());
 
         userService.updateById(nUser);
+        cacheEvictPublisher.publish(FrameCacheEvictEvent.Region.USER, Collections.singletonList(uuid));
 
         return SimpleResponse.accepted();
     }
@@ -0,0 +1,20 @@
+package com.blessedbin.frame.ucenter.entity.dto;
+
+import lombok.Data;
+
+/**
+ * Created by xubin on 2018/11/14.
+ *
+ * @author 37075
+ * @date 2018/11/14
+ * @time 9:45
+ * @tool intellij idea
+ */
+@Data
+public class RolePermissionDto {
+
+    private String roleKey;
+
+    private Integer permissionId;
+
+}
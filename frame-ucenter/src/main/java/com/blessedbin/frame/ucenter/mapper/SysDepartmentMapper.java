@@ -2,15 +2,70 @@ package com.blessedbin.frame.ucenter.mapper;
 
 import com.blessedbin.frame.ucenter.entity.SysDepartment;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.io.Serializable;
+import java.util.List;
 
 /**
  * <p>
  * 组织机构表 Mapper 接口
  * </p>
+ * 部门的祖先/后代关系保存在闭包表sys_department_closure中，包含深度为0的自身记录
  *
  * @author xubin
  * @since 2018-10-22
  */
 public interface SysDepartmentMapper extends BaseMapper<SysDepartment> {
 
+    /**
+     * 为新部门写入闭包记录：自身，以及父部门的全部祖先
+     * @param id 新部门id
+     * @param pid 父部门id，顶层部门为null
+     * @return
+     */
+    int insertClosure(@Param("id") Integer id, @Param("pid") Integer pid);
+
+    /**
+     * 查询并锁定部门
+     * @param id 部门id
+     * @return
+     */
+    SysDepartment selectByIdForUpdate(@Param("id") Integer id);
+
+    /**
+     * 查询并锁定子树的闭包记录
+     * @param id 子树根部门id
+     * @return 子树中的部门id，包含自身
+     */
+    List<Integer> selectSubtreeIdsForUpdate(@Param("id") Integer id);
+
+    /**
+     * 查询并锁定部门作为后代的闭包记录
+     * @param id 部门id
+     * @return 祖先部门id，包含自身
+     */
+    List<Integer> selectAncestorIdsForUpdate(@Param("id") Integer id);
+
+    /**
+     * 删除子树与其外部祖先之间的闭包记录，子树内部记录保留
+     * @param id 子树根部门id
+     * @return
+     */
+    int deleteSubtreeAncestors(@Param("id") Integer id);
+
+    /**
+     * 将子树挂到新的父部门下，写入新祖先与子树全部节点之间的闭包记录
+     * @param id 子树根部门id
+     * @param pid 新的父部门id
+     * @return
+     */
+    int insertSubtreeAncestors(@Param("id") Integer id, @Param("pid") Integer pid);
+
+    /**
+     * 删除部门作为后代的全部闭包记录
+     * @param id 部门id
+     * @return
+     */
+    int deleteClosure(@Param("id") Serializable id);
 }
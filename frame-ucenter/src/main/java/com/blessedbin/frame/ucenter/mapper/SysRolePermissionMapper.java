@@ -1,6 +1,7 @@
 package com.blessedbin.frame.ucenter.mapper;
 
 import com.blessedbin.frame.ucenter.entity.SysRolePermission;
+import com.blessedbin.frame.ucenter.entity.dto.RolePermissionDto;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Param;
 
@@ -22,4 +23,17 @@ public interface SysRolePermissionMapper extends BaseMapper<SysRolePermission> {
     int insertLists(@Param("list")List<SysRolePermission> list);
 
     List<SysRolePermission> selectByRoleId(@Param("roleId")Integer roleId);
+
+    /**
+     * 查询角色拥有的有效权限id
+     * @param roleKey 角色关键字
+     * @return
+     */
+    List<Integer> selectPermissionIdsByRoleKey(@Param("roleKey") String roleKey);
+
+    /**
+     * 查询全部角色的有效权限id
+     * @return
+     */
+    List<RolePermissionDto> selectAllPermissionIds();
 }
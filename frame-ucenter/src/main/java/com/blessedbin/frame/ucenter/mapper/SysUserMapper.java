@@ -1,8 +1,15 @@
 package com.blessedbin.frame.ucenter.mapper;
 
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.blessedbin.frame.common.entity.FrameIdentity;
+import com.blessedbin.frame.common.entity.FrameUser;
 import com.blessedbin.frame.ucenter.entity.SysUser;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * <p>
  * 用户表 Mapper 接口
@@ -14,4 +21,40 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;import org.apache.ibatis.
 public interface SysUserMapper extends BaseMapper<SysUser> {
 
     SysUser findByUsername(@Param("username")String username);
+
+    /**
+     * 查询用户及其角色
+     * @param username 用户名
+     * @return
+     */
+    FrameUser selectFrameUserByUsername(@Param("username") String username);
+
+    /**
+     * 查询用户及其角色
+     * @param uuid 用户ID
+     * @return
+     */
+    FrameUser selectFrameUserByUuid(@Param("uuid") String uuid);
+
+    /**
+     * 批量查询用户身份
+     * @param uuids 用户ID，不能为空
+     * @return
+     */
+    List<FrameIdentity> selectIdentitiesByUuids(@Param("uuids") Collection<String> uuids);
+
+    /**
+     * 分页查询部门子树中的用户
+     * @param page 分页参数
+     * @param departmentId 子树根部门id
+     * @return
+     */
+    IPage<SysUser> selectPageByDepartmentSubtree(Page<SysUser> page, @Param("departmentId") Integer departmentId);
+
+    /**
+     * 统计部门子树中的用户数量
+     * @param departmentId 子树根部门id
+     * @return
+     */
+    int countByDepartmentSubtree(@Param("departmentId") Integer departmentId);
 }
@@ -4,8 +4,10 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.blessedbin.frame.common.Pagination;
+import com.blessedbin.frame.common.event.FrameCacheEvictEvent;
 import com.blessedbin.frame.common.exception.ParamCheckRuntimeException;
 import com.blessedbin.frame.common.exception.ServiceRuntimeException;
+import com.blessedbin.frame.ucenter.component.CacheEvictPublisher;
 import com.blessedbin.frame.ucenter.entity.SysPermission;
 import com.blessedbin.frame.ucenter.entity.pojo.SysApi;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -53,6 +55,9 @@ public class ApiService {
     @Autowired
     private DiscoveryClient discoveryClient;
 
+    @Autowired
+    private CacheEvictPublisher cacheEvictPublisher;
+
     /**
      * 标记API扫描是否完成
      */
@@ -112,6 +117,9 @@ public class ApiService {
         }
 
         log.debug(">>> 新增权限点{}个，更新权限点{}个",addPoint.get(),updatePoint.get());
+        if (addPoint.get() > 0 || updatePoint.get() > 0) {
+            cacheEvictPublisher.publish(FrameCacheEvictEvent.Region.API);
+        }
         scanComplete.set(true);
     }
 
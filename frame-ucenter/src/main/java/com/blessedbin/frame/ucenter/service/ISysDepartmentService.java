@@ -18,4 +18,11 @@ import java.util.List;
 public interface ISysDepartmentService extends IService<SysDepartment>, BaseService<SysDepartment> {
 
     List<TreeNode> getDepartmentTree();
+
+    /**
+     * 移动部门及其全部下级部门
+     * @param id 部门id
+     * @param pid 新的上级部门id，为null时移动为顶层部门
+     */
+    void move(Integer id, Integer pid);
 }
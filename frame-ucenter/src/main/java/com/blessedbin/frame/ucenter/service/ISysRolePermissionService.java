@@ -3,6 +3,9 @@ package com.blessedbin.frame.ucenter.service;
 import com.blessedbin.frame.ucenter.entity.SysRolePermission;
 import com.baomidou.mybatisplus.extension.service.IService;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * <p>
  *  服务类
@@ -13,4 +16,17 @@ import com.baomidou.mybatisplus.extension.service.IService;
  */
 public interface ISysRolePermissionService extends IService<SysRolePermission> {
 
+    /**
+     * 查询角色拥有的有效权限id
+     * @param roleKey 角色关键字
+     * @return
+     */
+    List<Integer> selectPermissionIdsByRoleKey(String roleKey);
+
+    /**
+     * 查询全部角色的有效权限id
+     * @return 角色关键字 -> 权限id
+     */
+    Map<String, List<Integer>> selectAllPermissionIds();
+
 }
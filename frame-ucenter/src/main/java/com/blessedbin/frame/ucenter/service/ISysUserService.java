@@ -1,5 +1,7 @@
 package com.blessedbin.frame.ucenter.service;
 
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.blessedbin.frame.common.data.service.BaseService;
 import com.blessedbin.frame.ucenter.entity.SysUser;
 import com.baomidou.mybatisplus.extension.service.IService;
@@ -20,4 +22,19 @@ public interface ISysUserService extends IService<SysUser>, BaseService<SysUser>
 
     boolean checkPhoneExists(String phone);
 
+    /**
+     * 分页查询部门及其全部下级部门中的用户
+     * @param page 分页参数
+     * @param departmentId 部门id
+     * @return
+     */
+    IPage<SysUser> pageByDepartmentSubtree(Page<SysUser> page, Integer departmentId);
+
+    /**
+     * 统计部门及其全部下级部门中的用户数量
+     * @param departmentId 部门id
+     * @return
+     */
+    int countByDepartmentSubtree(Integer departmentId);
+
 }
@@ -1,24 +1,35 @@
 package com.blessedbin.frame.ucenter.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.blessedbin.frame.common.contant.SecurityConstants;
+import com.blessedbin.frame.common.entity.FrameIdentity;
+import com.blessedbin.frame.common.event.FrameCacheEvictEvent;
 import com.blessedbin.frame.common.exception.ResourceNotFoundException;
+import com.blessedbin.frame.ucenter.component.CacheEvictPublisher;
+import com.blessedbin.frame.ucenter.component.RoleMenuCache;
+import com.blessedbin.frame.ucenter.component.UserIdentityCache;
 import com.blessedbin.frame.ucenter.entity.SysPermission;
-import com.blessedbin.frame.ucenter.entity.SysRole;
 import com.blessedbin.frame.ucenter.entity.SysRolePermission;
 import com.blessedbin.frame.ucenter.entity.dto.MenuTreeDto;
 import com.blessedbin.frame.ucenter.entity.pojo.Menu;
+import com.blessedbin.frame.ucenter.support.MenuTreeBuilder;
+import com.blessedbin.frame.ucenter.support.VersionedCache;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.log4j.Log4j2;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
+import javax.annotation.PostConstruct;
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import static com.blessedbin.frame.ucenter.entity.SysPermission.TYPE_MENU;
@@ -26,6 +37,8 @@ import static com.blessedbin.frame.ucenter.entity.SysPermission.TYPE_MENU;
 /**
  * Created by xubin on 2018/7/9.
  *
+ * 菜单树按版本缓存，菜单增删改后通过{@link FrameCacheEvictEvent.Region#MENU}失效，下次读取时重建。
+ *
  * @author 37075
  * @date 2018/7/9
  * @time 14:35
@@ -39,11 +52,30 @@ public class MenuService {
     private ISysPermissionService permissionService;
 
     @Autowired
-    private ISysRoleService roleService;
+    private UserIdentityCache userIdentityCache;
+
+    @Autowired
+    private RoleMenuCache roleMenuCache;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CacheEvictPublisher cacheEvictPublisher;
+
+    @Value("${frame.ucenter.menu-cache.expire-seconds:300}")
+    private long expireSeconds;
+
+    private VersionedCache<List<MenuTreeDto>> menuTree;
+
+    private VersionedCache<List<MenuTreeDto>> menuTreeEnabled;
+
+    @PostConstruct
+    public void init() {
+        menuTree = new VersionedCache<>(() -> MenuTreeBuilder.build(allMenus(), MenuTreeBuilder.ROOT_PID), expireSeconds);
+        menuTreeEnabled = new VersionedCache<>(() -> MenuTreeBuilder.build(allMenuEnabled(), MenuTreeBuilder.ROOT_PID), expireSeconds);
+    }
+
 
     private List<Menu> allMenus(){
         List<SysPermission> permissions = permissionService.selectByType(TYPE_MENU);
@@ -71,46 +103,50 @@ public class MenuService {
         }).collect(Collectors.toList());
     }
 
-    private List<MenuTreeDto> buildMenuTree(List<Menu> menus,Integer pid){
-        return menus.stream().sorted((o1, o2) -> {
-            Integer a = o1.getSort() == null ? 0 : o1.getSort();
-            Integer b = o2.getSort() == null ? 0 : o2.getSort();
-            return b-a;
-        }).filter(menu -> menu.getPid().equals(pid)).map(menu -> {
-            MenuTreeDto dto = new MenuTreeDto();
-            BeanUtils.copyProperties(menu,dto);
-            dto.setChildren(buildMenuTree(menus,menu.getId()));
-            return dto;
-        }).collect(Collectors.toList());
+    /**
+     * 全部菜单树，结果在多个请求间共享，调用方不应修改
+     * @return
+     */
+    public List<MenuTreeDto> getMenuTree(){
+        return menuTree.get();
     }
 
-
-    public List<MenuTreeDto>  getMenuTree(){
-        return buildMenuTree(allMenus(),-1);
+    /**
+     * 已启用的菜单树，结果在多个请求间共享，调用方不应修改
+     * @return
+     */
+    public List<MenuTreeDto> getMenuTreeEnabled() {
+        return menuTreeEnabled.get();
     }
 
-    public List<MenuTreeDto> getMenuTreeEnabled() {
-        return buildMenuTree(allMenuEnabled(), -1);
+    @EventListener
+    public void onCacheEvict(FrameCacheEvictEvent event) {
+        if (event.getRegion() == FrameCacheEvictEvent.Region.MENU) {
+            menuTree.invalidate();
+            menuTreeEnabled.invalidate();
+        }
     }
 
     /**
-     * 获取用户菜单列表
+     * 获取用户菜单列表，由用户角色的可见菜单裁剪已启用的菜单树，结果按角色组合缓存
      * @param uuid 用户唯一编码
      * @return
      */
     public List<MenuTreeDto> getUserMenu(String uuid){
         Assert.notNull(uuid,"uuid is not null");
 
+        FrameIdentity identity = userIdentityCache.get(uuid);
+        if (identity == null || identity.getRoleKeys().isEmpty()) {
+            return new ArrayList<>();
+        }
+
         // 判断是否是超级管理员
-        List<SysRole> roles = roleService.selectByUuid(uuid);
-        boolean isAdmin = roles.stream().anyMatch(role -> "ROLE_ADMIN".equals(role.getRoleKey()));
-        if(isAdmin) {
+        if (identity.getRoleKeys().contains(SecurityConstants.ROLE_ADMIN_KEY)) {
             return getMenuTreeEnabled();
         }
 
-        List<SysPermission> permissions = permissionService.selectByUuidAndType(uuid, TYPE_MENU);
-        List<Menu> collect = permissions.stream().map(this::toMenu).collect(Collectors.toList());
-        return buildMenuTree(collect,-1);
+        List<String> roleKeys = new ArrayList<>(new TreeSet<>(identity.getRoleKeys()));
+        return roleMenuCache.get(roleKeys, getMenuTreeEnabled());
     }
 
 
@@ -128,6 +164,7 @@ public class MenuService {
         permission.setUpdateTime(LocalDateTime.now());
         permission.setType(TYPE_MENU);
         permission.setSort(menu.getSort());
+        permission.setEnabled(menu.getEnabled());
         permission.setCode("menu::" + menu.getName());
 
         try {
@@ -138,6 +175,7 @@ public class MenuService {
         }
 
         permissionService.save(permission);
+        cacheEvictPublisher.publish(FrameCacheEvictEvent.Region.MENU);
     }
 
 
@@ -155,8 +193,10 @@ public class MenuService {
         try {
             permission.setAdditionInformation(objectMapper.writeValueAsString(menu));
             permission.setEnabled(menu.getEnabled());
+            permission.setSort(menu.getSort());
             permission.setUpdateTime(LocalDateTime.now());
             permissionService.updateById(permission);
+            cacheEvictPublisher.publish(FrameCacheEvictEvent.Region.MENU);
         } catch (JsonProcessingException e) {
             log.error("JSON编码错误");
         }
@@ -170,6 +210,7 @@ public class MenuService {
      */
     @Transactional(rollbackFor = Exception.class)
     public boolean deleteById(Integer id) {
+        // 菜单树由ISysPermissionService.removeById失效
         return permissionService.removeById(id);
     }
 
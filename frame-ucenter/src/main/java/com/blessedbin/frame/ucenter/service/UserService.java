@@ -1,8 +1,13 @@
 package com.blessedbin.frame.ucenter.service;
 
 
+import com.blessedbin.frame.common.entity.FrameIdentity;
+import com.blessedbin.frame.common.entity.FrameUser;
 import com.blessedbin.frame.ucenter.entity.SysUser;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Created by xubin on 2018/7/29.
  *
@@ -16,4 +21,25 @@ public interface UserService {
     SysUser findByUsername(String username);
 
     SysUser selectByUuid(String uuid);
+
+    /**
+     * 查询用户及其启用的角色
+     * @param username 用户名
+     * @return
+     */
+    FrameUser findFrameUserByUsername(String username);
+
+    /**
+     * 查询用户及其启用的角色
+     * @param uuid 用户ID
+     * @return
+     */
+    FrameUser findFrameUserByUuid(String uuid);
+
+    /**
+     * 批量查询用户身份，一次查询完成
+     * @param uuids 用户ID
+     * @return 存在的用户
+     */
+    List<FrameIdentity> findIdentitiesByUuids(Collection<String> uuids);
 }
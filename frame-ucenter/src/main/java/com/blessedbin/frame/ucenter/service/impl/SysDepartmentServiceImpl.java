@@ -2,22 +2,40 @@ package com.blessedbin.frame.ucenter.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.blessedbin.frame.common.data.service.BaseService;
+import com.blessedbin.frame.common.event.FrameCacheEvictEvent;
+import com.blessedbin.frame.common.exception.ParamCheckRuntimeException;
+import com.blessedbin.frame.common.exception.ResourceNotFoundException;
 import com.blessedbin.frame.common.ui.TreeNode;
+import com.blessedbin.frame.ucenter.component.CacheEvictPublisher;
 import com.blessedbin.frame.ucenter.entity.SysDepartment;
 import com.blessedbin.frame.ucenter.mapper.SysDepartmentMapper;
 import com.blessedbin.frame.ucenter.service.ISysDepartmentService;
+import com.blessedbin.frame.ucenter.support.VersionedCache;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PostConstruct;
 import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * <p>
  * 组织机构表 服务实现类
  * </p>
+ * 部门树由一次查询构建并按版本缓存，部门增删改后通过{@link FrameCacheEvictEvent.Region#DEPARTMENT}失效。
+ * 部门的祖先/后代关系由闭包表维护，与部门表在同一事务中修改
  *
  * @author xubin
  * @since 2018-10-22
@@ -25,22 +43,46 @@ import java.util.stream.Collectors;
 @Service
 public class SysDepartmentServiceImpl extends ServiceImpl<SysDepartmentMapper, SysDepartment> implements ISysDepartmentService {
 
+    @Autowired
+    private CacheEvictPublisher cacheEvictPublisher;
+
+    @Value("${frame.ucenter.department-cache.expire-seconds:300}")
+    private long expireSeconds;
+
+    private VersionedCache<List<TreeNode>> departmentTree;
+
+    @PostConstruct
+    public void init() {
+        departmentTree = new VersionedCache<>(this::buildDepartmentTree, expireSeconds);
+    }
+
+    /**
+     * 部门树，结果在多个请求间共享，调用方不应修改
+     * @return
+     */
     @Override
     public List<TreeNode> getDepartmentTree() {
-        return buildDepartmentTree(null);
+        return departmentTree.get();
     }
 
     /**
-     * 递归构建树
-     * @param pid
+     * 一次查询全部部门，按pid索引后一次遍历组装，pid为null的是顶层节点
      * @return
      */
-    private List<TreeNode> buildDepartmentTree(Integer pid){
-        return getAllByPid(pid)
-                .stream().map(dt -> TreeNode.builder()
-                        .id(String.valueOf(dt.getId())).label(dt.getName())
-                        .children(buildDepartmentTree(dt.getId())).build())
-                .collect(Collectors.toList());
+    private List<TreeNode> buildDepartmentTree(){
+        QueryWrapper<SysDepartment> wrapper = new QueryWrapper<>();
+        wrapper.select("id", "pid", "name").orderByAsc("id");
+        List<SysDepartment> departments = list(wrapper);
+
+        Map<Integer, List<TreeNode>> childrenByPid = new HashMap<>(departments.size() * 2);
+        for (SysDepartment dt : departments) {
+            TreeNode node = TreeNode.builder()
+                    .id(String.valueOf(dt.getId())).label(dt.getName())
+                    .children(childrenByPid.computeIfAbsent(dt.getId(), id -> new ArrayList<>())).build();
+            childrenByPid.computeIfAbsent(dt.getPid(), pid -> new ArrayList<>()).add(node);
+        }
+        List<TreeNode> roots = childrenByPid.get(null);
+        return roots == null ? new ArrayList<>() : roots;
     }
 
 
@@ -62,6 +104,99 @@ public class SysDepartmentServiceImpl extends ServiceImpl<SysDepartmentMapper, S
         return list(wrapper);
     }
 
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean save(SysDepartment entity) {
+        if (entity.getPid() != null && !existsById(entity.getPid())) {
+            throw new ParamCheckRuntimeException("上级部门不存在");
+        }
+        boolean saved = super.save(entity);
+        if (saved) {
+            baseMapper.insertClosure(entity.getId(), entity.getPid());
+            cacheEvictPublisher.publish(FrameCacheEvictEvent.Region.DEPARTMENT);
+        }
+        return saved;
+    }
+
+    /**
+     * 更新部门，pid不为空且发生变化时按{@link #move(Integer, Integer)}移动
+     * @param entity
+     * @return
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean updateById(SysDepartment entity) {
+        if (entity.getPid() != null) {
+            move(entity.getId(), entity.getPid());
+        }
+        boolean updated = super.updateById(entity);
+        if (updated) {
+            cacheEvictPublisher.publish(FrameCacheEvictEvent.Region.DEPARTMENT);
+        }
+        return updated;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void move(Integer id, Integer pid) {
+        SysDepartment department = baseMapper.selectByIdForUpdate(id);
+        if (department == null) {
+            throw new ResourceNotFoundException("部门不存在");
+        }
+        if (Objects.equals(department.getPid(), pid)) {
+            return;
+        }
+        // 锁定被移动的子树和新上级的祖先链：两个移动可能组成环时，二者锁定的闭包记录必然重叠，
+        // 后执行的一方等待先执行的提交，并用加锁读看到最新的祖先关系
+        baseMapper.selectSubtreeIdsForUpdate(id);
+        if (pid != null) {
+            if (!existsById(pid)) {
+                throw new ParamCheckRuntimeException("上级部门不存在");
+            }
+            if (baseMapper.selectAncestorIdsForUpdate(pid).contains(id)) {
+                throw new ParamCheckRuntimeException("不能移动到自身或下级部门");
+            }
+        }
+
+        UpdateWrapper<SysDepartment> wrapper = new UpdateWrapper<>();
+        wrapper.set("pid", pid).set("update_time", LocalDateTime.now()).eq("id", id);
+        update(new SysDepartment(), wrapper);
+
+        baseMapper.deleteSubtreeAncestors(id);
+        if (pid != null) {
+            baseMapper.insertSubtreeAncestors(id, pid);
+        }
+        cacheEvictPublisher.publish(FrameCacheEvictEvent.Region.DEPARTMENT);
+    }
+
+    /**
+     * 删除部门，存在下级部门时不允许删除
+     * @param id
+     * @return
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean removeById(Serializable id) {
+        LambdaQueryWrapper<SysDepartment> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(SysDepartment::getPid, id);
+        if (exists(wrapper)) {
+            throw new ParamCheckRuntimeException("存在下级部门，不能删除");
+        }
+        boolean removed = super.removeById(id);
+        if (removed) {
+            baseMapper.deleteClosure(id);
+            cacheEvictPublisher.publish(FrameCacheEvictEvent.Region.DEPARTMENT);
+        }
+        return removed;
+    }
+
+    @EventListener
+    public void onCacheEvict(FrameCacheEvictEvent event) {
+        if (event.getRegion() == FrameCacheEvictEvent.Region.DEPARTMENT) {
+            departmentTree.invalidate();
+        }
+    }
+
     @Override
     public boolean existsById(Serializable id) {
         LambdaQueryWrapper<SysDepartment> wrapper = new LambdaQueryWrapper();
@@ -1,6 +1,8 @@
 package com.blessedbin.frame.ucenter.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.blessedbin.frame.common.event.FrameCacheEvictEvent;
+import com.blessedbin.frame.ucenter.component.CacheEvictPublisher;
 import com.blessedbin.frame.ucenter.entity.SysPermission;
 import com.blessedbin.frame.ucenter.entity.SysRolePermission;
 import com.blessedbin.frame.ucenter.mapper.SysPermissionMapper;
@@ -10,6 +12,7 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.Serializable;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -27,6 +30,24 @@ public class SysPermissionServiceImpl extends ServiceImpl<SysPermissionMapper, S
     @Autowired
     private SysRolePermissionMapper rolePermissionMapper;
 
+    @Autowired
+    private CacheEvictPublisher cacheEvictPublisher;
+
+    /**
+     * 删除菜单时失效菜单树，菜单可以经由菜单管理或权限管理删除
+     * @param id
+     * @return
+     */
+    @Override
+    public boolean removeById(Serializable id) {
+        SysPermission permission = getById(id);
+        boolean removed = super.removeById(id);
+        if (removed && permission != null && SysPermission.TYPE_MENU.equals(permission.getType())) {
+            cacheEvictPublisher.publish(FrameCacheEvictEvent.Region.MENU);
+        }
+        return removed;
+    }
+
     @Override
     public List<SysPermission> selectByRoleIdAndType(Integer roleId) {
         return baseMapper.selectByRoleId(roleId);
@@ -1,11 +1,16 @@
 package com.blessedbin.frame.ucenter.service.impl;
 
 import com.blessedbin.frame.ucenter.entity.SysRolePermission;
+import com.blessedbin.frame.ucenter.entity.dto.RolePermissionDto;
 import com.blessedbin.frame.ucenter.mapper.SysRolePermissionMapper;
 import com.blessedbin.frame.ucenter.service.ISysRolePermissionService;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 /**
  * <p>
  *  服务实现类
@@ -17,4 +22,15 @@ import org.springframework.stereotype.Service;
 @Service
 public class SysRolePermissionServiceImpl extends ServiceImpl<SysRolePermissionMapper, SysRolePermission> implements ISysRolePermissionService {
 
+    @Override
+    public List<Integer> selectPermissionIdsByRoleKey(String roleKey) {
+        return baseMapper.selectPermissionIdsByRoleKey(roleKey);
+    }
+
+    @Override
+    public Map<String, List<Integer>> selectAllPermissionIds() {
+        return baseMapper.selectAllPermissionIds().stream().collect(Collectors.groupingBy(RolePermissionDto::getRoleKey,
+                Collectors.mapping(RolePermissionDto::getPermissionId, Collectors.toList())));
+    }
+
 }
@@ -3,7 +3,9 @@ package com.blessedbin.frame.ucenter.service.impl;
 import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.blessedbin.frame.common.event.FrameCacheEvictEvent;
 import com.blessedbin.frame.common.exception.ParamCheckRuntimeException;
+import com.blessedbin.frame.ucenter.component.CacheEvictPublisher;
 import com.blessedbin.frame.ucenter.entity.SysPermission;
 import com.blessedbin.frame.ucenter.entity.SysRole;
 import com.blessedbin.frame.ucenter.entity.SysRolePermission;
@@ -19,6 +21,7 @@ import org.springframework.util.CollectionUtils;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -46,6 +49,9 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
     @Autowired
     private OperationService operationService;
 
+    @Autowired
+    private CacheEvictPublisher cacheEvictPublisher;
+
     @Override
     public boolean existsById(Serializable id) {
         LambdaQueryWrapper<SysRole> wrapper = new LambdaQueryWrapper<>();
@@ -71,6 +77,7 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
         LambdaQueryWrapper<SysUserRole> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(SysUserRole::getSysUserUuid,uuid);
         userRoleService.remove(wrapper);
+        cacheEvictPublisher.publish(FrameCacheEvictEvent.Region.USER_ROLE, Collections.singletonList(uuid));
         if (CollectionUtils.isEmpty(selectedRole)) {
             return;
         }
@@ -85,8 +92,7 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
     }
 
     /**
-     * TODO 保存角色和权限之间的关系
-     * TODO 业务逻辑需要完善
+     * 保存角色和权限之间的关系，操作会展开为其包含的API
      * @param roleId
      * @param checkedList
      */
@@ -101,6 +107,7 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
         LambdaQueryWrapper<SysRolePermission> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(SysRolePermission::getSysRoleId,roleId);
         rolePermissionService.remove(wrapper);
+        cacheEvictPublisher.publish(FrameCacheEvictEvent.Region.ROLE_PERMISSION, Collections.singletonList(role.getRoleKey()));
 
         if (CollectionUtils.isEmpty(checkedList)) {
             //清空全部
@@ -123,18 +130,15 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
 
         });
 
-        /*// 过滤掉失效的permissionid
-        List<SysRolePermission> srps = permissionMapper.selectIdsByInIds(permissionIds).stream().map(id -> {
+        List<SysRolePermission> srps = permissionIds.stream().distinct().map(id -> {
             SysRolePermission rp = new SysRolePermission();
             rp.setSysRoleId(roleId);
             rp.setSysPermissionId(id);
             return rp;
         }).collect(Collectors.toList());
+        rolePermissionService.saveBatch(srps);
 
-        int i = rolePermissionMapper.insertLists(srps);*/
-
-        /*log.debug("更新API成功，角色：{}，添加数量：{}，过滤数量：{}",
-                role.getRoleName(),i,(permissionIds.size() - i));*/
+        log.debug("更新角色权限成功，角色：{}，权限数量：{}", role.getRoleName(), srps.size());
     }
 
     @Override
@@ -2,7 +2,11 @@ package com.blessedbin.frame.ucenter.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.blessedbin.frame.common.entity.FrameIdentity;
+import com.blessedbin.frame.common.entity.FrameUser;
 import com.blessedbin.frame.ucenter.entity.SysUser;
 import com.blessedbin.frame.ucenter.mapper.SysUserMapper;
 import com.blessedbin.frame.ucenter.service.ISysUserService;
@@ -10,6 +14,9 @@ import com.blessedbin.frame.ucenter.service.UserService;
 import org.springframework.stereotype.Service;
 
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * <p>
@@ -42,6 +49,39 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
         return getById(uuid);
     }
 
+    @Override
+    public FrameUser findFrameUserByUsername(String username) {
+        return baseMapper.selectFrameUserByUsername(username);
+    }
+
+    @Override
+    public FrameUser findFrameUserByUuid(String uuid) {
+        return baseMapper.selectFrameUserByUuid(uuid);
+    }
+
+    @Override
+    public List<FrameIdentity> findIdentitiesByUuids(Collection<String> uuids) {
+        if (uuids == null || uuids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<FrameIdentity> identities = baseMapper.selectIdentitiesByUuids(uuids);
+        // 没有角色的用户，MyBatis不会初始化角色集合
+        identities.stream()
+                .filter(identity -> identity.getRoleKeys() == null)
+                .forEach(identity -> identity.setRoleKeys(Collections.emptyList()));
+        return identities;
+    }
+
+    @Override
+    public IPage<SysUser> pageByDepartmentSubtree(Page<SysUser> page, Integer departmentId) {
+        return baseMapper.selectPageByDepartmentSubtree(page, departmentId);
+    }
+
+    @Override
+    public int countByDepartmentSubtree(Integer departmentId) {
+        return baseMapper.countByDepartmentSubtree(departmentId);
+    }
+
     /**
      * @param email
      * @return
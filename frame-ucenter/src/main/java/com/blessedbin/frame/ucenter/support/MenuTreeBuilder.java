@@ -0,0 +1,123 @@
+package com.blessedbin.frame.ucenter.support;
+
+import com.blessedbin.frame.ucenter.entity.dto.MenuTreeDto;
+import com.blessedbin.frame.ucenter.entity.pojo.Menu;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Created by xubin on 2018/11/29.
+ *
+ * 菜单树构建：按pid建立索引，每组兄弟节点只排序一次，整体代价为O(n log n)。
+ * 兄弟节点按sort倒序排列，sort为空视为0；无法挂到根节点下的菜单不会出现在结果中。
+ *
+ * @author 37075
+ * @date 2018/11/29
+ * @time 10:20
+ * @tool intellij idea
+ */
+public final class MenuTreeBuilder {
+
+    /**
+     * 顶级菜单的pid
+     */
+    public static final int ROOT_PID = -1;
+
+    private static final Comparator<MenuTreeDto> BY_SORT_DESC =
+            (o1, o2) -> Integer.compare(sortOf(o2), sortOf(o1));
+
+    private MenuTreeBuilder() {
+    }
+
+    /**
+     * @param menus 菜单列表，为null的元素会被忽略
+     * @param rootPid 根节点pid
+     * @return 根节点下的菜单树
+     */
+    public static List<MenuTreeDto> build(Collection<Menu> menus, Integer rootPid) {
+        Map<Integer, List<MenuTreeDto>> childrenByPid = new HashMap<>(menus.size() * 2);
+        for (Menu menu : menus) {
+            if (menu == null || menu.getPid() == null) {
+                continue;
+            }
+            childrenByPid.computeIfAbsent(menu.getPid(), pid -> new ArrayList<>()).add(toDto(menu));
+        }
+        for (List<MenuTreeDto> siblings : childrenByPid.values()) {
+            siblings.sort(BY_SORT_DESC);
+            for (MenuTreeDto dto : siblings) {
+                List<MenuTreeDto> children = childrenByPid.get(dto.getId());
+                dto.setChildren(children == null ? new ArrayList<>() : children);
+            }
+        }
+        List<MenuTreeDto> roots = childrenByPid.get(rootPid);
+        return roots == null ? new ArrayList<>() : roots;
+    }
+
+    /**
+     * 按可见性裁剪菜单树，父节点不可见时整棵子树都不可见。返回新的节点，原树不变
+     * @param tree 菜单树
+     * @param visible 判断菜单id是否可见
+     * @return
+     */
+    public static List<MenuTreeDto> filter(List<MenuTreeDto> tree, Predicate<Integer> visible) {
+        List<MenuTreeDto> result = new ArrayList<>();
+        for (MenuTreeDto node : tree) {
+            if (!visible.test(node.getId())) {
+                continue;
+            }
+            MenuTreeDto copy = copyOf(node);
+            copy.setChildren(node.getChildren() == null ? new ArrayList<>() : filter(node.getChildren(), visible));
+            result.add(copy);
+        }
+        return result;
+    }
+
+    private static MenuTreeDto copyOf(MenuTreeDto node) {
+        MenuTreeDto dto = new MenuTreeDto();
+        dto.setId(node.getId());
+        dto.setTitle(node.getTitle());
+        dto.setPid(node.getPid());
+        dto.setComponent(node.getComponent());
+        dto.setName(node.getName());
+        dto.setPath(node.getPath());
+        dto.setRedirect(node.getRedirect());
+        dto.setIcon(node.getIcon());
+        dto.setEnabled(node.getEnabled());
+        dto.setAlwaysShow(node.getAlwaysShow());
+        dto.setHidden(node.getHidden());
+        dto.setRemark(node.getRemark());
+        dto.setSort(node.getSort());
+        dto.setMeta(node.getMeta());
+        dto.setOperations(node.getOperations());
+        return dto;
+    }
+
+    private static MenuTreeDto toDto(Menu menu) {
+        MenuTreeDto dto = new MenuTreeDto();
+        dto.setId(menu.getId());
+        dto.setTitle(menu.getTitle());
+        dto.setPid(menu.getPid());
+        dto.setComponent(menu.getComponent());
+        dto.setName(menu.getName());
+        dto.setPath(menu.getPath());
+        dto.setRedirect(menu.getRedirect());
+        dto.setIcon(menu.getIcon());
+        dto.setEnabled(menu.getEnabled());
+        dto.setAlwaysShow(menu.getAlwaysShow());
+        dto.setHidden(menu.getHidden());
+        dto.setSort(menu.getSort());
+        dto.setMeta(menu.getMeta());
+        dto.setOperations(menu.getOperations());
+        return dto;
+    }
+
+    private static int sortOf(MenuTreeDto dto) {
+        return dto.getSort() == null ? 0 : dto.getSort();
+    }
+}
@@ -0,0 +1,80 @@
+package com.blessedbin.frame.ucenter.support;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Created by xubin on 2018/12/4.
+ *
+ * 单值缓存：{@link #invalidate()}递增版本，读取时版本落后或超过有效期则重新加载。
+ * 同一时刻只有一个调用方加载，其余调用方等待并使用它的结果。
+ * 加载期间发生失效时，结果带着旧版本写入，下次读取会再次加载。结果在多个请求间共享，调用方不应修改
+ *
+ * @author 37075
+ * @date 2018/12/4
+ * @time 10:30
+ * @tool intellij idea
+ */
+public class VersionedCache<T> {
+
+    private final Supplier<T> loader;
+
+    private final long expireNanos;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final Object loadLock = new Object();
+
+    private volatile Entry<T> entry;
+
+    /**
+     * @param loader 加载函数
+     * @param expireSeconds 有效期，事件丢失时兜底
+     */
+    public VersionedCache(Supplier<T> loader, long expireSeconds) {
+        this.loader = loader;
+        this.expireNanos = TimeUnit.SECONDS.toNanos(expireSeconds);
+    }
+
+    public T get() {
+        Entry<T> cached = entry;
+        if (isFresh(cached)) {
+            return cached.value;
+        }
+        synchronized (loadLock) {
+            // 等锁期间其他调用方可能已经加载完成
+            cached = entry;
+            if (isFresh(cached)) {
+                return cached.value;
+            }
+            long current = version.get();
+            T value = loader.get();
+            entry = new Entry<>(current, System.nanoTime(), value);
+            return value;
+        }
+    }
+
+    public void invalidate() {
+        version.incrementAndGet();
+    }
+
+    private boolean isFresh(Entry<T> cached) {
+        return cached != null && cached.version == version.get() && System.nanoTime() - cached.loadedAt < expireNanos;
+    }
+
+    private static final class Entry<T> {
+
+        private final long version;
+
+        private final long loadedAt;
+
+        private final T value;
+
+        private Entry(long version, long loadedAt, T value) {
+            this.version = version;
+            this.loadedAt = loadedAt;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,3 @@
+-- 用户身份查询：sys_user按主键uuid查询，sys_user_role按(sys_user_uuid, sys_role_id)覆盖，不需要回表
+ALTER TABLE `sys_user_role`
+    ADD INDEX `idx_sys_user_role_user_role` (`sys_user_uuid`, `sys_role_id`);
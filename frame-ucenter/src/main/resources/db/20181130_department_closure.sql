@@ -0,0 +1,27 @@
+-- 部门闭包表：每个部门与其自身及全部祖先各一条记录，depth为层级差，自身为0
+CREATE TABLE IF NOT EXISTS `sys_department_closure`
+(
+    `ancestor_id`   INT NOT NULL COMMENT '祖先部门id',
+    `descendant_id` INT NOT NULL COMMENT '后代部门id',
+    `depth`         INT NOT NULL COMMENT '层级差',
+    PRIMARY KEY (`ancestor_id`, `descendant_id`),
+    INDEX `idx_sys_department_closure_descendant` (`descendant_id`, `ancestor_id`, `depth`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='部门闭包表';
+
+-- 由sys_department.pid回填，递归CTE需要MySQL 8.0；pid存在环时会超过cte_max_recursion_depth报错，需先修正数据
+INSERT INTO `sys_department_closure` (`ancestor_id`, `descendant_id`, `depth`)
+WITH RECURSIVE `tree` (`ancestor_id`, `descendant_id`, `depth`) AS (
+    SELECT `id`, `id`, 0
+    FROM `sys_department`
+    UNION ALL
+    SELECT `tree`.`ancestor_id`, `sd`.`id`, `tree`.`depth` + 1
+    FROM `tree`
+             INNER JOIN `sys_department` `sd` ON `sd`.`pid` = `tree`.`descendant_id`
+)
+SELECT `ancestor_id`, `descendant_id`, `depth`
+FROM `tree`;
+
+-- 部门子树用户查询：闭包表按ancestor_id取得子树，sys_user按department_id关联
+ALTER TABLE `sys_user`
+    ADD INDEX `idx_sys_user_department` (`department_id`);
@@ -0,0 +1,23 @@
+-- 菜单上级id：由addition_information中的pid生成并落盘，ALTER时为已有数据计算；非菜单或JSON无效时为NULL
+ALTER TABLE `sys_permission`
+    ADD COLUMN `menu_pid` INT GENERATED ALWAYS AS (
+        CASE
+            WHEN `type` <> 'MENU' OR NOT JSON_VALID(`addition_information`) THEN NULL
+            WHEN JSON_TYPE(JSON_EXTRACT(`addition_information`, '$.pid')) = 'INTEGER'
+                THEN CAST(JSON_EXTRACT(`addition_information`, '$.pid') AS SIGNED)
+            END) STORED COMMENT '菜单上级id',
+    ADD INDEX `idx_sys_permission_menu_pid` (`menu_pid`),
+    ADD INDEX `idx_sys_permission_type_enabled` (`type`, `enabled`);
+
+-- 菜单排序和启用状态使用已有的sort、enabled列，按addition_information回填，此后由菜单的增改同步写入
+UPDATE `sys_permission`
+SET `sort`    = CASE
+                    WHEN JSON_TYPE(JSON_EXTRACT(`addition_information`, '$.sort')) = 'INTEGER'
+                        THEN CAST(JSON_EXTRACT(`addition_information`, '$.sort') AS SIGNED)
+                    ELSE `sort` END,
+    `enabled` = CASE JSON_UNQUOTE(JSON_EXTRACT(`addition_information`, '$.enabled'))
+                    WHEN 'true' THEN 1
+                    WHEN 'false' THEN 0
+                    ELSE `enabled` END
+WHERE `type` = 'MENU'
+  AND JSON_VALID(`addition_information`);
@@ -0,0 +1,92 @@
+package com.blessedbin.frame.ucenter.support;
+
+import com.blessedbin.frame.ucenter.entity.dto.MenuTreeDto;
+import com.blessedbin.frame.ucenter.entity.pojo.Menu;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by xubin on 2018/11/29.
+ *
+ * @author 37075
+ * @date 2018/11/29
+ * @time 11:05
+ * @tool intellij idea
+ */
+public class MenuTreeBuilderTest {
+
+    @Test
+    public void build() {
+        List<MenuTreeDto> tree = MenuTreeBuilder.build(Arrays.asList(
+                menu(1, -1, 1),
+                menu(2, -1, 5),
+                menu(3, 1, null),
+                menu(4, 1, 2),
+                menu(5, 3, 0),
+                menu(6, 99, 0),
+                null
+        ), MenuTreeBuilder.ROOT_PID);
+
+        assertEquals(2, tree.size());
+        assertEquals(Integer.valueOf(2), tree.get(0).getId());
+        assertTrue(tree.get(0).isLeaf());
+
+        MenuTreeDto first = tree.get(1);
+        assertEquals(Integer.valueOf(1), first.getId());
+        assertEquals(Integer.valueOf(4), first.getChildren().get(0).getId());
+        assertEquals(Integer.valueOf(3), first.getChildren().get(1).getId());
+        assertEquals(Integer.valueOf(5), first.getChildren().get(1).getChildren().get(0).getId());
+        assertEquals("menu3", first.getChildren().get(1).getName());
+    }
+
+    @Test
+    public void stableForEqualSort() {
+        List<MenuTreeDto> tree = MenuTreeBuilder.build(Arrays.asList(
+                menu(1, -1, 0),
+                menu(2, -1, null),
+                menu(3, -1, 0)
+        ), MenuTreeBuilder.ROOT_PID);
+
+        assertEquals(Integer.valueOf(1), tree.get(0).getId());
+        assertEquals(Integer.valueOf(2), tree.get(1).getId());
+        assertEquals(Integer.valueOf(3), tree.get(2).getId());
+    }
+
+    @Test
+    public void filter() {
+        List<MenuTreeDto> tree = MenuTreeBuilder.build(Arrays.asList(
+                menu(1, -1, 2),
+                menu(2, -1, 1),
+                menu(3, 1, 0),
+                menu(4, 1, 0),
+                menu(5, 2, 0)
+        ), MenuTreeBuilder.ROOT_PID);
+        Set<Integer> visible = new HashSet<>(Arrays.asList(1, 4, 5));
+
+        List<MenuTreeDto> filtered = MenuTreeBuilder.filter(tree, visible::contains);
+
+        assertEquals(1, filtered.size());
+        assertEquals(Integer.valueOf(1), filtered.get(0).getId());
+        assertNotSame(tree.get(0), filtered.get(0));
+        assertEquals(1, filtered.get(0).getChildren().size());
+        assertEquals(Integer.valueOf(4), filtered.get(0).getChildren().get(0).getId());
+        assertEquals(2, tree.get(0).getChildren().size());
+    }
+
+    private static Menu menu(Integer id, Integer pid, Integer sort) {
+        Menu menu = new Menu();
+        menu.setId(id);
+        menu.setPid(pid);
+        menu.setSort(sort);
+        menu.setName("menu" + id);
+        return menu;
+    }
+}
@@ -0,0 +1,102 @@
+package com.blessedbin.frame.ucenter.support;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Created by xubin on 2018/12/4.
+ *
+ * @author 37075
+ * @date 2018/12/4
+ * @time 11:10
+ * @tool intellij idea
+ */
+public class VersionedCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void reloadAfterInvalidate() {
+        VersionedCache<Integer> cache = new VersionedCache<>(loads::incrementAndGet, 300);
+
+        assertEquals(Integer.valueOf(1), cache.get());
+        assertEquals(Integer.valueOf(1), cache.get());
+
+        cache.invalidate();
+        assertEquals(Integer.valueOf(2), cache.get());
+    }
+
+    @Test
+    public void invalidateDuringLoadDiscardsResult() {
+        AtomicReference<VersionedCache<Integer>> holder = new AtomicReference<>();
+        holder.set(new VersionedCache<>(() -> {
+            int n = loads.incrementAndGet();
+            if (n == 1) {
+                holder.get().invalidate();
+            }
+            return n;
+        }, 300));
+
+        assertEquals(Integer.valueOf(1), holder.get().get());
+        assertEquals(Integer.valueOf(2), holder.get().get());
+        assertEquals(Integer.valueOf(2), holder.get().get());
+    }
+
+    @Test
+    public void concurrentReadersLoadOnce() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        VersionedCache<Integer> cache = new VersionedCache<>(() -> {
+            started.countDown();
+            await(release);
+            return loads.incrementAndGet();
+        }, 300);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> readers = new ArrayList<>();
+            readers.add(executor.submit(cache::get));
+            started.await(5, TimeUnit.SECONDS);
+            for (int i = 0; i < 7; i++) {
+                readers.add(executor.submit(cache::get));
+            }
+            // 让其余调用方都阻塞在加载上
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<Integer> reader : readers) {
+                assertEquals(Integer.valueOf(1), reader.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void reloadAfterExpire() {
+        VersionedCache<Integer> cache = new VersionedCache<>(loads::incrementAndGet, 0);
+
+        assertEquals(Integer.valueOf(1), cache.get());
+        assertEquals(Integer.valueOf(2), cache.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}